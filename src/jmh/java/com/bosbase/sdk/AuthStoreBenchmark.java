@@ -0,0 +1,54 @@
+package com.bosbase.sdk;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request auth checks ({@code isValid()} as called by {@link BosBase#send} plus the expiry
+ * lookup done by the auto-refresh hook): decoding the JWT on every call versus the cached claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthStoreBenchmark {
+    private BaseAuthStore store;
+    private String token;
+
+    @Setup
+    public void setup() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        String header = encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}");
+        String payload = encode("{\"collectionId\":\"pbc_3142635823\",\"exp\":" + exp
+            + ",\"id\":\"4q1xlclmfloku33\",\"refreshable\":true,\"type\":\"auth\"}");
+        token = header + "." + payload + ".c2lnbmF0dXJlLXNpZ25hdHVyZS1zaWduYXR1cmU";
+        store = new BaseAuthStore(token, null);
+    }
+
+    @Benchmark
+    public boolean decodePerRequest() {
+        return !BaseAuthStore.isTokenExpired(token) && BaseAuthStore.getTokenExp(token) != null;
+    }
+
+    @Benchmark
+    public boolean cachedClaims() {
+        return store.isValid() && store.getTokenExpiry() != null;
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of decoded responses into plain Java values ({@link JsonUtils#toNative},
+ * {@link JsonUtils#jsonNodeToMap}), as done for errors, realtime payloads and untyped results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonConversionBenchmark {
+    @Param({"10", "200"})
+    public int items;
+
+    private JsonNode list;
+
+    @Setup
+    public void setup() throws Exception {
+        StringBuilder json = new StringBuilder("{\"page\":1,\"perPage\":").append(items)
+            .append(",\"totalItems\":").append(items).append(",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":\"r").append(i).append("\",\"title\":\"Post ").append(i)
+                .append("\",\"views\":").append(i).append(",\"score\":").append(i * 0.5)
+                .append(",\"published\":true,\"tags\":[\"a\",\"b\"],\"meta\":{\"draft\":false,\"author\":null}}");
+        }
+        json.append("]}");
+        list = JsonUtils.MAPPER.readTree(json.toString());
+    }
+
+    @Benchmark
+    public Object toNative() {
+        return JsonUtils.toNative(list);
+    }
+
+    @Benchmark
+    public Map<String, Object> jsonNodeToMap() {
+        return JsonUtils.jsonNodeToMap(list);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Auth-store work done while setting up one request with auto-refresh enabled (model, token,
+ * validity and expiry lookups): {@link LocalAuthStore} versus {@link BaseAuthStore}, plus the former
+ * Preferences-read-per-call behaviour of LocalAuthStore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalAuthStoreBenchmark {
+    private static final String NAMESPACE = "bosbase.jmh.auth";
+
+    private BaseAuthStore baseStore;
+    private LocalAuthStore localStore;
+    private Preferences prefs;
+
+    @Setup
+    public void setup() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            ("{\"collectionId\":\"_pb_users_auth_\",\"exp\":" + exp + ",\"id\":\"u1\",\"type\":\"auth\"}")
+                .getBytes(StandardCharsets.UTF_8)
+        );
+        String token = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9." + payload + ".c2lnbmF0dXJl";
+        ObjectNode model = JsonUtils.MAPPER.createObjectNode()
+            .put("id", "u1")
+            .put("collectionId", "_pb_users_auth_")
+            .put("collectionName", "users")
+            .put("email", "user@example.com")
+            .put("verified", true);
+
+        baseStore = new BaseAuthStore(token, model);
+        localStore = new LocalAuthStore(NAMESPACE);
+        localStore.save(token, model);
+        localStore.flush();
+        prefs = Preferences.userRoot().node(NAMESPACE);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        prefs.removeNode();
+    }
+
+    @Benchmark
+    public boolean baseAuthStore() {
+        return requestSetup(baseStore);
+    }
+
+    @Benchmark
+    public boolean localAuthStore() {
+        return requestSetup(localStore);
+    }
+
+    @Benchmark
+    public boolean preferencesPerCall() throws Exception {
+        JsonNode model = JsonUtils.MAPPER.readTree(prefs.get("model", null));
+        String token = prefs.get("token", null);
+        boolean valid = !BaseAuthStore.isTokenExpired(prefs.get("token", null));
+        return model.has("id") && token != null && valid && BaseAuthStore.getTokenExp(prefs.get("token", null)) != null;
+    }
+
+    private static boolean requestSetup(BaseAuthStore store) {
+        ObjectNode model = store.getModel();
+        String token = store.getToken();
+        return model.has("id") && token != null && store.isValid() && store.getTokenExpiry() != null;
+    }
+}
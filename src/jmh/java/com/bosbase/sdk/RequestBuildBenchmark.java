@@ -0,0 +1,93 @@
+package com.bosbase.sdk;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.HttpUrl;
+import okhttp3.RequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Client-side work done before a request hits the wire: filter interpolation, URL building and
+ * request body serialization (JSON and multipart).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuildBenchmark {
+    private static final String FILTER = "title = {:title} && views > {:views} && active = {:active} && created >= {:created}";
+
+    private BosBase pb;
+    private FilterTemplate filterTemplate;
+    private Map<String, Object> filterParams;
+    private Map<String, Object> query;
+    private Map<String, Object> body;
+    private Map<String, List<FileAttachment>> files;
+
+    @Setup
+    public void setup() {
+        pb = new BosBase("http://127.0.0.1:8090", "en-US", new AuthStore(), null);
+
+        filterTemplate = FilterTemplate.compile(FILTER);
+        filterParams = new LinkedHashMap<>();
+        filterParams.put("title", "it's a demo");
+        filterParams.put("views", 42);
+        filterParams.put("active", true);
+        filterParams.put("created", Instant.parse("2024-01-01T00:00:00Z"));
+
+        query = new LinkedHashMap<>();
+        query.put("page", 2);
+        query.put("perPage", 50);
+        query.put("sort", "-created,title");
+        query.put("filter", "title ~ 'demo' && views > 10");
+        query.put("expand", "author,comments_via_post");
+        query.put("fields", List.of("id", "title", "views"));
+
+        body = new LinkedHashMap<>();
+        body.put("title", "Hello world");
+        body.put("views", 42);
+        body.put("tags", List.of("a", "b", "c"));
+        body.put("meta", Map.of("draft", false, "score", 1.5));
+
+        files = Map.of("cover", List.of(new FileAttachment("cover.png", new byte[16 * 1024], "image/png")));
+    }
+
+    @Benchmark
+    public String filter() {
+        return pb.filter(FILTER, filterParams);
+    }
+
+    @Benchmark
+    public String filterTemplate() {
+        return filterTemplate.render(filterParams);
+    }
+
+    @Benchmark
+    public HttpUrl buildUrl() {
+        return pb.buildUrl("/api/collections/posts/records", query);
+    }
+
+    @Benchmark
+    public RequestBody jsonBody() {
+        return pb.buildRequestBody(body, null);
+    }
+
+    @Benchmark
+    public RequestBody multipartBody() {
+        return pb.buildRequestBody(body, files);
+    }
+}
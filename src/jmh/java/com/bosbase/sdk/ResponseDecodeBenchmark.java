@@ -0,0 +1,70 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the old {@code body().string()} + {@code readTree(String)} decode against the streaming
+ * decoder used by {@link BosBase#send}. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseDecodeBenchmark {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    @Param({"64", "1024"})
+    public int payloadKb;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("{\"page\":1,\"perPage\":500,\"totalItems\":100000,\"items\":[");
+        int i = 0;
+        while (sb.length() < payloadKb * 1024) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"rec").append(i)
+                .append("\",\"collectionName\":\"posts\",\"title\":\"T\u00edtulo n\u00famero ").append(i)
+                .append("\",\"views\":").append(i * 7)
+                .append(",\"published\":true,\"created\":\"2024-01-01 10:00:00.000Z\"}");
+            i++;
+        }
+        sb.append("]}");
+        payload = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JsonNode stringThenReadTree() throws Exception {
+        ResponseBody body = newBody();
+        return JsonUtils.MAPPER.readTree(body.string());
+    }
+
+    @Benchmark
+    public JsonNode streamingDecode() throws Exception {
+        return JsonUtils.readResponseBody(newBody(), "application/json; charset=utf-8");
+    }
+
+    private ResponseBody newBody() {
+        return ResponseBody.create(Okio.buffer(Okio.source(new ByteArrayInputStream(payload))), JSON, payload.length);
+    }
+}
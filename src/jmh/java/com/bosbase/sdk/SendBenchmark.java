@@ -0,0 +1,112 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.net.ServerSocketFactory;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full {@link BosBase#send} round trips against a local MockWebServer, so the numbers include
+ * loopback I/O; compare runs on the same machine only. The server disables Nagle on accepted sockets,
+ * otherwise every response stalls on the peer's delayed ACK (~40ms) and hides the client's own cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendBenchmark {
+    private static final String RECORD = "{\"id\":\"r1\",\"collectionId\":\"pbc_1\",\"collectionName\":\"posts\","
+        + "\"title\":\"Hello world\",\"views\":42,\"tags\":[\"a\",\"b\"],\"created\":\"2024-01-01 00:00:00.000Z\"}";
+
+    private MockWebServer server;
+    private BosBase pb;
+    private Map<String, Object> body;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setHeader("Content-Type", "application/json").setBody(RECORD);
+            }
+        });
+        server.start();
+        pb = new BosBase(server.url("/").toString(), "en-US", new AuthStore(), null);
+        body = Map.of("title", "Hello world", "views", 42);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public JsonNode getOne() {
+        return pb.send("/api/collections/posts/records/r1", "GET", null, null, null, null, null, null, false);
+    }
+
+    @Benchmark
+    public JsonNode create() {
+        return pb.send("/api/collections/posts/records", "POST", null, null, body, null, null, null, false);
+    }
+
+    @Benchmark
+    public JsonNode getOneAsync() {
+        return pb.sendAsync("/api/collections/posts/records/r1", "GET", null, null, null, null, null, null, false).join();
+    }
+
+    private static class NoDelayServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return createServerSocket(port, 50, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return createServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            ServerSocket socket = createServerSocket();
+            socket.bind(new InetSocketAddress(address, port), backlog);
+            return socket;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bosbase.sdk.services;
+
+import com.bosbase.sdk.AuthStore;
+import com.bosbase.sdk.BosBase;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Dispatch of one incoming pubsub "message" frame (parse, decode, fan out to a listener). A local
+ * MockWebServer only serves the websocket handshake; frames are fed to the handler directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PubSubBenchmark {
+    private static final String FRAME = "{\"type\":\"message\",\"id\":\"m1\",\"topic\":\"chat\","
+        + "\"created\":\"2024-01-01 10:00:00.000Z\",\"data\":{\"event\":\"post\",\"payload\":{\"text\":\"hello\","
+        + "\"user\":\"u1\",\"tags\":[\"a\",\"b\"]},\"ref\":\"r1\"}}";
+
+    private MockWebServer server;
+    private BosBase pb;
+    private volatile Object last;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                webSocket.send("{\"type\":\"ready\",\"clientId\":\"bench\"}");
+            }
+        }));
+        server.start();
+        pb = new BosBase(server.url("/").toString(), "en-US", new AuthStore(), null);
+        pb.pubsub.subscribe("chat", message -> last = message.data);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pb.pubsub.disconnect();
+        server.shutdown();
+    }
+
+    @Benchmark
+    public void handleMessage(Blackhole bh) {
+        pb.pubsub.handleMessage(FRAME);
+        bh.consume(last);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bosbase.sdk.services;
+
+import com.bosbase.sdk.AuthStore;
+import com.bosbase.sdk.BosBase;
+import com.bosbase.sdk.JsonUtils;
+import com.bosbase.sdk.ResultList;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Wrapping a decoded list response into a {@link ResultList}, as done by every {@code getList} call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultListBenchmark {
+    @Param({"30", "500"})
+    public int items;
+
+    private RecordService records;
+    private JsonNode page;
+
+    @Setup
+    public void setup() throws Exception {
+        records = new BosBase("http://127.0.0.1:8090", "en-US", new AuthStore(), null).collection("posts");
+        StringBuilder json = new StringBuilder("{\"page\":1,\"perPage\":").append(items)
+            .append(",\"totalItems\":").append(items * 10).append(",\"totalPages\":10,\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":\"r").append(i).append("\",\"collectionName\":\"posts\",\"title\":\"Post ").append(i)
+                .append("\",\"views\":").append(i).append(",\"created\":\"2024-01-01 10:00:00.000Z\"}");
+        }
+        json.append("]}");
+        page = JsonUtils.MAPPER.readTree(json.toString());
+    }
+
+    @Benchmark
+    public ResultList<ObjectNode> asResultList() {
+        return records.asResultList(page);
+    }
+}
@@ -0,0 +1,36 @@
+package com.bosbase.sdk;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter: attempt {@code n} waits
+ * {@code min(maxDelay, initialDelay * multiplier^(n-1))}, of which the {@code jitter} fraction
+ * (0..1) is randomized. A jitter of 1 gives "full jitter", 0 a fixed schedule.
+ */
+public class Backoff {
+    public final long initialDelayMillis;
+    public final long maxDelayMillis;
+    public final double multiplier;
+    public final double jitter;
+
+    public Backoff(long initialDelayMillis, long maxDelayMillis, double multiplier, double jitter) {
+        if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("invalid backoff delays");
+        }
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.multiplier = Math.max(1.0, multiplier);
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+    /**
+     * Delay before the given attempt (1-based).
+     */
+    public long delayMillis(int attempt) {
+        double raw = initialDelayMillis * Math.pow(multiplier, Math.max(0, attempt - 1));
+        long capped = (long) Math.min(maxDelayMillis, raw);
+        long spread = (long) (capped * jitter);
+        if (spread <= 0) return capped;
+        return capped - spread + ThreadLocalRandom.current().nextLong(spread + 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bosbase.sdk;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Default {@link RetryPolicy}: exponential backoff with jitter, honouring {@code Retry-After}.
+ *
+ * Transport errors and the configured statuses (429, 502, 503, 504 by default) are retried for
+ * idempotent methods only; non-idempotent requests are retried only when they provably never reached
+ * the server (connection refused) or were rejected with 429. Each request gets at most
+ * {@code maxRetries} retries and stops retrying once the next attempt would start after
+ * {@code maxElapsedMillis} (0 disables that budget).
+ */
+public class BackoffRetryPolicy implements RetryPolicy {
+    public static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+    public static final Set<Integer> DEFAULT_RETRY_STATUSES = Set.of(429, 502, 503, 504);
+
+    public final int maxRetries;
+    public final Backoff backoff;
+    public final long maxElapsedMillis;
+    public final Set<Integer> retryStatuses;
+    public final boolean idempotentOnly;
+
+    public BackoffRetryPolicy() {
+        this(3, new Backoff(100, 5_000, 2.0, 1.0), 30_000, DEFAULT_RETRY_STATUSES, true);
+    }
+
+    public BackoffRetryPolicy(int maxRetries, Backoff backoff, long maxElapsedMillis, Set<Integer> retryStatuses, boolean idempotentOnly) {
+        this.maxRetries = maxRetries;
+        this.backoff = backoff;
+        this.maxElapsedMillis = maxElapsedMillis;
+        this.retryStatuses = retryStatuses != null ? retryStatuses : DEFAULT_RETRY_STATUSES;
+        this.idempotentOnly = idempotentOnly;
+    }
+
+    @Override
+    public long retryDelayMillis(Request request, int retry, long elapsedMillis, Response response, IOException error) {
+        if (retry > maxRetries) return -1;
+        boolean idempotent = IDEMPOTENT_METHODS.contains(request.method());
+
+        long delay;
+        if (error != null) {
+            if (idempotentOnly && !idempotent && !(error instanceof ConnectException)) return -1;
+            delay = backoff.delayMillis(retry);
+        } else {
+            int status = response.code();
+            if (!retryStatuses.contains(status)) return -1;
+            if (idempotentOnly && !idempotent && status != 429) return -1;
+            Long retryAfter = parseRetryAfter(response.header("Retry-After"));
+            delay = retryAfter != null ? retryAfter : backoff.delayMillis(retry);
+        }
+
+        if (maxElapsedMillis > 0 && elapsedMillis + delay > maxElapsedMillis) return -1;
+        return delay;
+    }
+
+    /**
+     * Parses {@code Retry-After} given either as delta seconds or as an HTTP date.
+     */
+    static Long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) return null;
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed)) * 1000;
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            long at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - System.currentTimeMillis());
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+}
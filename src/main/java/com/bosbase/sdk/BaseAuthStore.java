@@ -20,8 +20,9 @@ public class BaseAuthStore {
     public static final String DEFAULT_COOKIE_KEY = "pb_auth";
 
     protected final ObjectMapper mapper = JsonUtils.MAPPER;
-    protected String baseToken;
-    protected ObjectNode baseModel;
+    protected volatile String baseToken;
+    protected volatile ObjectNode baseModel;
+    private volatile TokenInfo tokenInfo = TokenInfo.EMPTY;
     private final CopyOnWriteArrayList<OnStoreChangeFunc> callbacks = new CopyOnWriteArrayList<>();
 
     public BaseAuthStore() {
@@ -42,24 +43,30 @@ public class BaseAuthStore {
     }
 
     public boolean isValid() {
-        return !isTokenExpired(baseToken);
+        Long exp = tokenInfo(baseToken).exp;
+        return exp != null && System.currentTimeMillis() / 1000 < exp;
+    }
+
+    /**
+     * Expiration (unix seconds) of the current token, or {@code null} when missing or malformed.
+     */
+    public Long getTokenExpiry() {
+        return tokenInfo(getToken()).exp;
     }
 
     /**
      * Checks whether the current auth state belongs to a superuser account.
      */
     public boolean isSuperuser() {
-        ObjectNode payload = getTokenPayload(baseToken);
+        TokenInfo info = tokenInfo(baseToken);
         String recordCollectionName = baseModel != null ? baseModel.path("collectionName").asText(null) : null;
         String recordCollectionId = baseModel != null ? baseModel.path("collectionId").asText(null) : null;
-        String payloadCollectionId = payload != null ? payload.path("collectionId").asText(null) : null;
-        String payloadType = payload != null ? payload.path("type").asText(null) : null;
 
-        boolean isAuthToken = "auth".equals(payloadType);
+        boolean isAuthToken = "auth".equals(info.type);
         boolean matchesSuperuserCollection = "_superusers".equals(recordCollectionName)
             || "pbc_3142635823".equals(recordCollectionId)
-            || "_superusers".equals(payload != null ? payload.path("collectionName").asText(null) : null)
-            || "pbc_3142635823".equals(payloadCollectionId);
+            || "_superusers".equals(info.collectionName)
+            || "pbc_3142635823".equals(info.collectionId);
 
         return isAuthToken && matchesSuperuserCollection;
     }
@@ -77,8 +84,7 @@ public class BaseAuthStore {
      */
     @Deprecated
     public boolean isAuthRecord() {
-        ObjectNode payload = getTokenPayload(baseToken);
-        return payload != null && "auth".equals(payload.path("type").asText(null)) && !isSuperuser();
+        return "auth".equals(tokenInfo(baseToken).type) && !isSuperuser();
     }
 
     public void save(String newToken, ObjectNode newModel) {
@@ -130,9 +136,8 @@ public class BaseAuthStore {
     }
 
     public String exportToCookie(CookieOptions options, String key) {
-        Date defaultExpires = getTokenExp(baseToken) != null
-            ? Date.from(Instant.ofEpochSecond(getTokenExp(baseToken)))
-            : new Date(0);
+        Long exp = tokenInfo(baseToken).exp;
+        Date defaultExpires = exp != null ? Date.from(Instant.ofEpochSecond(exp)) : new Date(0);
         CookieOptions finalOptions = options.expires == null ? options.withExpires(defaultExpires) : options;
         Map<String, Object> payload = Map.of(
             "token", baseToken,
@@ -186,6 +191,20 @@ public class BaseAuthStore {
         return sb.toString();
     }
 
+    /**
+     * Returns the decoded claims of {@code token}, decoding only when the token differs from the
+     * last one seen, so per-request validity checks never parse the JWT.
+     */
+    private TokenInfo tokenInfo(String token) {
+        TokenInfo info = tokenInfo;
+        if (info.token == token || (token != null && token.equals(info.token))) {
+            return info;
+        }
+        info = token == null ? TokenInfo.EMPTY : new TokenInfo(token, getTokenPayload(token));
+        tokenInfo = info;
+        return info;
+    }
+
     protected static boolean isTokenExpired(String token) {
         Long exp = getTokenExp(token);
         if (exp == null) return true;
@@ -222,4 +241,22 @@ public class BaseAuthStore {
         int padding = (4 - raw.length() % 4) % 4;
         return raw + "=".repeat(padding);
     }
+
+    private static final class TokenInfo {
+        static final TokenInfo EMPTY = new TokenInfo(null, null);
+
+        final String token;
+        final Long exp;
+        final String type;
+        final String collectionId;
+        final String collectionName;
+
+        TokenInfo(String token, ObjectNode payload) {
+            this.token = token;
+            this.exp = payload != null && payload.path("exp").isNumber() ? payload.path("exp").asLong() : null;
+            this.type = payload != null ? payload.path("type").asText(null) : null;
+            this.collectionId = payload != null ? payload.path("collectionId").asText(null) : null;
+            this.collectionName = payload != null ? payload.path("collectionName").asText(null) : null;
+        }
+    }
 }
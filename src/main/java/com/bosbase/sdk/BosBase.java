@@ -2,6 +2,7 @@ package com.bosbase.sdk;
 
 import com.bosbase.sdk.services.BackupService;
 import com.bosbase.sdk.services.BatchService;
+import com.bosbase.sdk.services.BatchWriter;
 import com.bosbase.sdk.services.CacheService;
 import com.bosbase.sdk.services.CollectionService;
 import com.bosbase.sdk.services.CronService;
@@ -21,25 +22,33 @@ import com.bosbase.sdk.services.ScriptService;
 import com.bosbase.sdk.services.SettingsService;
 import com.bosbase.sdk.services.SQLService;
 import com.bosbase.sdk.services.VectorService;
+import com.bosbase.sdk.services.WriteOutbox;
 import com.bosbase.sdk.JsonUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.time.temporal.TemporalAccessor;
-import java.util.Base64;
+import java.nio.file.Path;
 import java.util.Collections;
-import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.HttpUrl.Builder;
 import okhttp3.MediaType;
@@ -49,9 +58,23 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 
-public class BosBase {
+public class BosBase implements AutoCloseable {
     private static final MediaType MEDIA_TYPE_JSON = MediaType.parse("application/json; charset=utf-8");
     private static final String USER_AGENT = "bosbase-java-sdk/0.1.0";
+    private static final long AUTO_REFRESH_RETRY_MILLIS = 10_000;
+    private static final int FILTER_TEMPLATE_CACHE_SIZE = 512;
+    /** Retry delays and hedge timers of all clients; the tasks only complete futures or enqueue calls, so one thread is enough. */
+    private static final ScheduledThreadPoolExecutor RETRY_TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "bosbase-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        RETRY_TIMER.setKeepAliveTime(30, TimeUnit.SECONDS);
+        RETRY_TIMER.allowCoreThreadTimeOut(true);
+        RETRY_TIMER.setRemoveOnCancelPolicy(true);
+    }
 
     private static class AutoRefreshState {
         final long thresholdSeconds;
@@ -60,6 +83,8 @@ public class BosBase {
         final BeforeSendHook originalBeforeSend;
         final String initialRecordId;
         final String initialCollectionId;
+        final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+        volatile ScheduledFuture<?> scheduled;
 
         AutoRefreshState(
             long thresholdSeconds,
@@ -88,13 +113,19 @@ public class BosBase {
         JsonNode apply(Response response, JsonNode data, RequestOptions options) throws Exception;
     }
 
+    /** The first (primary) node; URLs handed to callers, such as file URLs, are built against it. */
     public final String baseUrl;
+    public final LoadBalancer loadBalancer;
     public String lang;
     public BaseAuthStore authStore;
     public final OkHttpClient httpClient;
 
     public BeforeSendHook beforeSend;
     public AfterSendHook afterSend;
+    /** Retry policy applied to every request; {@link RetryPolicy#NONE} disables retries. */
+    public volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+    /** Opt-in hedging of GET requests; {@code null} (the default) disables it. */
+    public volatile HedgingPolicy hedgingPolicy;
 
     public final CollectionService collections;
     public final FileService files;
@@ -117,17 +148,68 @@ public class BosBase {
     public final PluginService plugins;
 
     private final ObjectMapper mapper = JsonUtils.MAPPER;
+    private final Map<String, FilterTemplate> filterTemplates = new ConcurrentHashMap<>();
     private final Map<String, RecordService> recordServices = new ConcurrentHashMap<>();
-    private final Map<String, Call> cancelCalls = new ConcurrentHashMap<>();
-    private AutoRefreshState autoRefreshState;
+    private final Map<String, PreparedRequest> cancelCalls = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<JsonNode>> inFlightGets = new ConcurrentHashMap<>();
+    private final AtomicLong collapsedRequests = new AtomicLong();
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final java.util.List<RequestListener> requestListeners = new java.util.concurrent.CopyOnWriteArrayList<>();
+    private volatile OkHttpClient metricsClient;
+    private volatile AutoRefreshState autoRefreshState;
+    private ScheduledExecutorService refreshScheduler;
     private boolean enableAutoCancellation = true;
+    private volatile boolean enableRequestCoalescing;
 
     public BosBase(String baseUrl) {
         this(baseUrl, "en-US", null, null);
     }
 
+    public BosBase(String baseUrl, BosBaseOptions options) {
+        this(Collections.singletonList(baseUrl), options);
+    }
+
+    /**
+     * A client spreading requests over several nodes of one deployment, chosen by
+     * {@link BosBaseOptions#loadBalancingPolicy}. Requests that fail to connect are re-sent to another
+     * node; realtime and pubsub connections stick to the node they were opened on.
+     */
+    public BosBase(java.util.List<String> baseUrls, BosBaseOptions options) {
+        this(
+            baseUrls,
+            options != null ? options.lang : null,
+            options != null ? options.authStore : null,
+            options != null ? options.buildHttpClient() : null,
+            options != null ? options.loadBalancingPolicy : null,
+            options != null ? options.nodeEjectMillis : BosBaseOptions.DEFAULT_NODE_EJECT_MILLIS
+        );
+        if (options != null) {
+            this.enableRequestCoalescing = options.requestCoalescing;
+            if (options.retryPolicy != null) this.retryPolicy = options.retryPolicy;
+            this.hedgingPolicy = options.hedgingPolicy;
+        }
+    }
+
     public BosBase(String baseUrl, String lang, BaseAuthStore authStore, OkHttpClient client) {
-        this.baseUrl = normalizeBaseUrl(baseUrl);
+        this(Collections.singletonList(baseUrl), lang, authStore, client, null, BosBaseOptions.DEFAULT_NODE_EJECT_MILLIS);
+    }
+
+    private BosBase(
+        java.util.List<String> baseUrls,
+        String lang,
+        BaseAuthStore authStore,
+        OkHttpClient client,
+        LoadBalancer.Policy policy,
+        long ejectMillis
+    ) {
+        if (baseUrls == null || baseUrls.isEmpty()) throw new IllegalArgumentException("at least one base URL is required");
+        java.util.List<String> nodes = new java.util.ArrayList<>(baseUrls.size());
+        for (String url : baseUrls) {
+            nodes.add(normalizeBaseUrl(url));
+        }
+        this.baseUrl = nodes.get(0);
+        this.loadBalancer = new LoadBalancer(nodes, policy, ejectMillis);
         this.lang = lang != null ? lang : "en-US";
         if (authStore != null) {
             this.authStore = authStore;
@@ -169,22 +251,132 @@ public class BosBase {
         return new BatchService(this);
     }
 
+    /**
+     * Creates an auto-flushing {@link BatchWriter}; see its docs for the flush triggers.
+     */
+    public BatchWriter createBatchWriter(int maxRequests, long maxBytes, long lingerMillis, int maxInFlight) {
+        return new BatchWriter(this, maxRequests, maxBytes, lingerMillis, maxInFlight);
+    }
+
+    /**
+     * Opens a durable {@link WriteOutbox} in {@code directory}, resuming any operations left in it.
+     */
+    public WriteOutbox createOutbox(Path directory, int maxBatchRequests, long syncIntervalMillis) {
+        return new WriteOutbox(this, directory, maxBatchRequests, syncIntervalMillis);
+    }
+
     public BosBase autoCancellation(boolean enable) {
         this.enableAutoCancellation = enable;
         return this;
     }
 
+    /**
+     * Lets concurrent identical GET requests (same URL and Authorization) share one network call
+     * and one decoded result, which must then be treated as read-only. A request that joins an
+     * in-flight call does not auto-cancel it; cancelling the shared call via
+     * {@link #cancelRequest(String)} fails every caller waiting on it.
+     */
+    public BosBase requestCoalescing(boolean enable) {
+        this.enableRequestCoalescing = enable;
+        return this;
+    }
+
+    /**
+     * Number of requests that were served by joining an identical in-flight GET.
+     */
+    public long getCollapsedRequestCount() {
+        return collapsedRequests.get();
+    }
+
+    /**
+     * Limits the concurrency of one endpoint group (see {@link #endpointGroup(String)}); {@code null}
+     * removes the limit.
+     */
+    public BosBase bulkhead(String group, Bulkhead bulkhead) {
+        if (bulkhead == null) {
+            bulkheads.remove(group);
+        } else {
+            bulkheads.put(group, bulkhead);
+        }
+        return this;
+    }
+
+    /**
+     * Guards one endpoint group (see {@link #endpointGroup(String)}) with a circuit breaker;
+     * {@code null} removes it.
+     */
+    public BosBase circuitBreaker(String group, CircuitBreaker breaker) {
+        if (breaker == null) {
+            circuitBreakers.remove(group);
+        } else {
+            circuitBreakers.put(group, breaker);
+        }
+        return this;
+    }
+
+    public Map<String, Bulkhead> getBulkheads() {
+        return Collections.unmodifiableMap(bulkheads);
+    }
+
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(circuitBreakers);
+    }
+
+    /**
+     * The endpoint group of an API path: the first segment after {@code /api/} ("langchaingo",
+     * "vectors", "sql", "files", ...), except that record and record-auth routes under
+     * {@code /api/collections/{name}/} map to "records".
+     */
+    public static String endpointGroup(String path) {
+        String trimmed = path == null ? "" : path.replaceFirst("^/+", "");
+        int query = trimmed.indexOf('?');
+        if (query >= 0) trimmed = trimmed.substring(0, query);
+        String[] segments = trimmed.split("/");
+        if (segments.length < 2 || !"api".equals(segments[0])) return segments.length > 0 ? segments[0] : "";
+        String group = segments[1];
+        if ("collections".equals(group) && segments.length >= 4) {
+            String sub = segments[3];
+            if ("records".equals(sub) || "impersonate".equals(sub) || sub.startsWith("auth-")
+                || sub.startsWith("request-") || sub.startsWith("confirm-")) {
+                return "records";
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Reports every request sent from now on to the listener, e.g. a {@link RequestHistogram}. Without
+     * listeners no timing is collected.
+     */
+    public BosBase addRequestListener(RequestListener listener) {
+        if (listener == null) throw new IllegalArgumentException("listener must be set");
+        synchronized (requestListeners) {
+            if (metricsClient == null) {
+                metricsClient = httpClient.newBuilder()
+                    .eventListenerFactory(new MetricsEventListener.Factory(httpClient.eventListenerFactory()))
+                    .build();
+            }
+            requestListeners.add(listener);
+        }
+        return this;
+    }
+
+    public BosBase removeRequestListener(RequestListener listener) {
+        requestListeners.remove(listener);
+        return this;
+    }
+
     public BosBase cancelRequest(String requestKey) {
-        Call call = cancelCalls.remove(requestKey);
-        if (call != null) {
-            call.cancel();
+        PreparedRequest request = cancelCalls.remove(requestKey);
+        if (request != null) {
+            request.cancel();
         }
         return this;
     }
 
     public BosBase cancelAllRequests() {
-        for (Call call : cancelCalls.values()) {
-            call.cancel();
+        for (PreparedRequest request : cancelCalls.values()) {
+            request.cancel();
         }
         cancelCalls.clear();
         return this;
@@ -206,6 +398,7 @@ public class BosBase {
             initialRecordId,
             initialCollectionId
         );
+        scheduleAutoRefresh(autoRefreshState, false);
 
         beforeSend = (url, options) -> {
             AutoRefreshState state = autoRefreshState;
@@ -230,20 +423,17 @@ public class BosBase {
                 .orElse(false);
             String previousToken = authStore.getToken();
             if (!skipAutoRefresh) {
-                boolean isValid = authStore.isValid();
-                if (isValid && isTokenExpiring(authStore.getToken(), state.thresholdSeconds)) {
+                if (!authStore.isValid()) {
+                    // the current token is unusable, so wait for the shared refresh/reauth
                     try {
-                        state.refreshFunc.run();
-                    } catch (Exception ignored) {
-                        isValid = authStore.isValid();
-                    }
-                }
-
-                if (!authStore.isValid() && !isValid) {
-                    try {
-                        state.reauthenticateFunc.run();
+                        refreshAuth(state).get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
                     } catch (Exception ignored) {
                     }
+                } else if (isTokenExpiring(state.thresholdSeconds)) {
+                    // still valid: refresh in the background and send with the current token
+                    refreshAuth(state);
                 }
 
                 syncAuthorizationHeader(options, previousToken);
@@ -258,37 +448,121 @@ public class BosBase {
         if (state != null) {
             beforeSend = state.originalBeforeSend;
             autoRefreshState = null;
+            ScheduledFuture<?> scheduled = state.scheduled;
+            if (scheduled != null) scheduled.cancel(false);
         }
     }
 
-    public String filter(String raw, Map<String, Object> params) {
-        if (params == null || params.isEmpty()) return raw;
-        String result = raw;
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String placeholder = "{:" + entry.getKey() + "}";
-            Object val = entry.getValue();
-            String replacement;
-            if (val == null) {
-                replacement = "null";
-            } else if (val instanceof Boolean || val instanceof Number) {
-                replacement = val.toString();
-            } else if (val instanceof String) {
-                replacement = "'" + ((String) val).replace("'", "\\'") + "'";
-            } else if (val instanceof java.util.Date) {
-                String iso = ((Date) val).toInstant().toString().replace("T", " ");
-                replacement = "'" + iso + "'";
-            } else if (val instanceof TemporalAccessor) {
-                replacement = "'" + val.toString() + "'";
-            } else {
-                try {
-                    replacement = "'" + mapper.writeValueAsString(val).replace("'", "\\'") + "'";
-                } catch (JsonProcessingException e) {
-                    replacement = "'" + val.toString().replace("'", "\\'") + "'";
+    /**
+     * Runs the refresh (or reauthentication) once for all concurrent callers; callers arriving
+     * while it is in flight share the same future.
+     */
+    private CompletableFuture<Void> refreshAuth(AutoRefreshState state) {
+        CompletableFuture<Void> refresh = new CompletableFuture<>();
+        while (true) {
+            // the winner may finish and reset inFlight between a failed CAS and the re-read
+            CompletableFuture<Void> current = state.inFlight.get();
+            if (current != null) return current;
+            if (state.inFlight.compareAndSet(null, refresh)) break;
+        }
+
+        refreshScheduler().execute(() -> {
+            try {
+                if (authStore.isValid()) {
+                    try {
+                        state.refreshFunc.run();
+                    } catch (Exception ignored) {
+                    }
+                }
+                if (!authStore.isValid()) {
+                    try {
+                        state.reauthenticateFunc.run();
+                    } catch (Exception ignored) {
+                    }
+                }
+            } finally {
+                state.inFlight.set(null);
+                refresh.complete(null);
+                if (autoRefreshState == state) {
+                    scheduleAutoRefresh(state, true);
                 }
             }
-            result = result.replace(placeholder, replacement);
+        });
+        return refresh;
+    }
+
+    /**
+     * Schedules the next proactive refresh at {@code exp - threshold}. After a refresh that left the
+     * token still expiring the next attempt is delayed so a failing endpoint is not hammered.
+     */
+    private void scheduleAutoRefresh(AutoRefreshState state, boolean afterRefresh) {
+        Long exp = authStore.getTokenExpiry();
+        if (exp == null) return;
+        long threshold = state.thresholdSeconds < 0 ? 0 : state.thresholdSeconds;
+        long delayMillis = (exp - threshold) * 1000 - System.currentTimeMillis();
+        if (delayMillis <= 0 && afterRefresh) {
+            delayMillis = Math.min(AUTO_REFRESH_RETRY_MILLIS, Math.max(0, exp * 1000 - System.currentTimeMillis()));
         }
-        return result;
+        ScheduledFuture<?> previous = state.scheduled;
+        if (previous != null) previous.cancel(false);
+        state.scheduled = refreshScheduler().schedule(() -> {
+            if (autoRefreshState != state) return;
+            if (!authStore.isValid() || isTokenExpiring(state.thresholdSeconds)) {
+                refreshAuth(state);
+            } else {
+                scheduleAutoRefresh(state, false);
+            }
+        }, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledExecutorService retryScheduler() {
+        return RETRY_TIMER;
+    }
+
+    private synchronized ScheduledExecutorService refreshScheduler() {
+        if (refreshScheduler == null) {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "bosbase-auth-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // the thread only lives while a refresh is pending, so clients that are never closed don't leak it
+            scheduler.setKeepAliveTime(30, TimeUnit.SECONDS);
+            scheduler.allowCoreThreadTimeOut(true);
+            scheduler.setRemoveOnCancelPolicy(true);
+            refreshScheduler = scheduler;
+        }
+        return refreshScheduler;
+    }
+
+    /**
+     * Stops the auto refresh and shuts down the client's background threads. Idle threads also exit
+     * on their own, so this is only needed to release them right away. The OkHttpClient is not closed.
+     */
+    @Override
+    public void close() {
+        resetAutoRefresh();
+        ScheduledExecutorService scheduler;
+        synchronized (this) {
+            scheduler = refreshScheduler;
+            refreshScheduler = null;
+        }
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    /**
+     * Replaces {@code {:name}} placeholders in a filter expression with escaped parameter values.
+     * Parsed templates are cached per expression, see {@link FilterTemplate}.
+     */
+    public String filter(String raw, Map<String, Object> params) {
+        if (params == null || params.isEmpty()) return raw;
+        FilterTemplate template = filterTemplates.get(raw);
+        if (template == null) {
+            if (filterTemplates.size() >= FILTER_TEMPLATE_CACHE_SIZE) filterTemplates.clear();
+            template = FilterTemplate.compile(raw);
+            filterTemplates.put(raw, template);
+        }
+        return template.render(params);
     }
 
     public HttpUrl buildUrl(String path) {
@@ -296,7 +570,14 @@ public class BosBase {
     }
 
     public HttpUrl buildUrl(String path, Map<String, Object> query) {
-        String target = baseUrl + "/" + path.replaceFirst("^/", "");
+        return buildNodeUrl(baseUrl, path, query);
+    }
+
+    /**
+     * Like {@link #buildUrl(String, Map)} but against the given node of {@link #loadBalancer}.
+     */
+    public HttpUrl buildNodeUrl(String nodeBaseUrl, String path, Map<String, Object> query) {
+        String target = nodeBaseUrl + "/" + path.replaceFirst("^/", "");
         Builder builder = HttpUrl.parse(target) != null ? Objects.requireNonNull(HttpUrl.parse(target)).newBuilder() : null;
         if (builder == null) {
             throw new IllegalArgumentException("Invalid URL: " + target);
@@ -320,6 +601,136 @@ public class BosBase {
         Long timeoutSeconds,
         String requestKey,
         Boolean autoCancel
+    ) {
+        PreparedRequest prepared = prepareRequest(path, method, headers, query, body, files, timeoutSeconds, requestKey, autoCancel, true);
+        if (prepared.coalesceKey != null) {
+            return sendCoalesced(prepared);
+        }
+        return execute(prepared, this::handleResponse);
+    }
+
+    public JsonNode send(String path, Map<String, Object> query, Map<String, String> headers) {
+        return send(path, "GET", headers, query, null, null, null, null, true);
+    }
+
+    public JsonNode send(String path, Map<String, Object> query) {
+        return send(path, "GET", null, query, null, null, null, null, true);
+    }
+
+    public JsonNode send(String path) {
+        return send(path, "GET", null, null, null, null, null, null, true);
+    }
+
+    /**
+     * Non-blocking variant of {@link #send(String, String, Map, Map, Object, Map, Long, String, Boolean)}.
+     *
+     * The request goes through the same beforeSend/afterSend hooks, auto-cancellation and
+     * error mapping, but is dispatched with {@code Call.enqueue} so no caller thread is held
+     * while the response is in flight. Cancelling the returned future cancels the underlying call.
+     */
+    public CompletableFuture<JsonNode> sendAsync(
+        String path,
+        String method,
+        Map<String, String> headers,
+        Map<String, Object> query,
+        Object body,
+        Map<String, java.util.List<FileAttachment>> files,
+        Long timeoutSeconds,
+        String requestKey,
+        Boolean autoCancel
+    ) {
+        PreparedRequest prepared;
+        try {
+            prepared = prepareRequest(path, method, headers, query, body, files, timeoutSeconds, requestKey, autoCancel, true);
+        } catch (RuntimeException err) {
+            return CompletableFuture.failedFuture(err);
+        }
+        if (prepared.coalesceKey != null) {
+            return sendCoalescedAsync(prepared);
+        }
+        return enqueue(prepared, this::handleResponse);
+    }
+
+    public CompletableFuture<JsonNode> sendAsync(String path, Map<String, Object> query) {
+        return sendAsync(path, "GET", null, query, null, null, null, null, true);
+    }
+
+    public CompletableFuture<JsonNode> sendAsync(String path) {
+        return sendAsync(path, "GET", null, null, null, null, null, null, true);
+    }
+
+    /**
+     * Same as {@link #send(String, String, Map, Map, Object, Map, Long, String, Boolean)} but binds the
+     * JSON response directly into {@code resultType} without building an intermediate tree.
+     *
+     * Error responses, non-JSON bodies and clients with an afterSend hook still go through the
+     * JsonNode path (the hook needs the tree) and are converted afterwards.
+     */
+    public <T> T sendTyped(
+        String path,
+        String method,
+        Map<String, String> headers,
+        Map<String, Object> query,
+        Object body,
+        Map<String, java.util.List<FileAttachment>> files,
+        Long timeoutSeconds,
+        String requestKey,
+        Boolean autoCancel,
+        JavaType resultType
+    ) {
+        PreparedRequest prepared = prepareRequest(path, method, headers, query, body, files, timeoutSeconds, requestKey, autoCancel, false);
+        return execute(prepared, (response, req) -> handleTypedResponse(response, req, resultType));
+    }
+
+    public <T> CompletableFuture<T> sendTypedAsync(
+        String path,
+        String method,
+        Map<String, String> headers,
+        Map<String, Object> query,
+        Object body,
+        Map<String, java.util.List<FileAttachment>> files,
+        Long timeoutSeconds,
+        String requestKey,
+        Boolean autoCancel,
+        JavaType resultType
+    ) {
+        PreparedRequest prepared;
+        try {
+            prepared = prepareRequest(path, method, headers, query, body, files, timeoutSeconds, requestKey, autoCancel, false);
+        } catch (RuntimeException err) {
+            return CompletableFuture.failedFuture(err);
+        }
+        return enqueue(prepared, (response, req) -> handleTypedResponse(response, req, resultType));
+    }
+
+    /**
+     * Sends a request and returns the raw, undecoded response so the body can be streamed
+     * (e.g. file downloads). The request goes through beforeSend and the default headers but is
+     * never auto-cancelled. Error statuses are mapped to {@link ClientResponseError}; otherwise
+     * the caller must close the returned response.
+     */
+    public Response sendStreaming(String path, String method, Map<String, String> headers, Map<String, Object> query) {
+        PreparedRequest prepared = prepareRequest(path, method, headers, query, null, null, null, null, false, false);
+        prepared.hedgeable = false;
+        return execute(prepared, (response, req) -> {
+            if (response.code() >= 400) {
+                handleResponse(response, req);
+            }
+            return response;
+        });
+    }
+
+    private PreparedRequest prepareRequest(
+        String path,
+        String method,
+        Map<String, String> headers,
+        Map<String, Object> query,
+        Object body,
+        Map<String, java.util.List<FileAttachment>> files,
+        Long timeoutSeconds,
+        String requestKey,
+        Boolean autoCancel,
+        boolean coalesce
     ) {
         RequestOptions hookOptions = new RequestOptions();
         hookOptions.method = method != null ? method : "GET";
@@ -364,48 +775,542 @@ public class BosBase {
             reqBuilder.method(upperMethod, requiresRequestBody(upperMethod) ? RequestBody.create(new byte[0], null) : null);
         }
 
+        Request request = reqBuilder.build();
+        String coalesceKey = coalesce && enableRequestCoalescing && "GET".equals(upperMethod)
+            ? "GET " + targetUrl + " " + Objects.toString(request.header("Authorization"), "")
+            : null;
+
         String cancelKey = null;
         if (enableAutoCancellation && finalOptions.autoCancel) {
             cancelKey = finalOptions.requestKey != null ? finalOptions.requestKey : upperMethod + " " + path;
-            cancelRequest(cancelKey);
+            if (coalesceKey == null) {
+                cancelRequest(cancelKey);
+            }
         }
 
-        OkHttpClient clientToUse = timeoutSeconds != null
-            ? httpClient.newBuilder().callTimeout(timeoutSeconds, TimeUnit.SECONDS).build()
-            : httpClient;
-
-        Call call = clientToUse.newCall(reqBuilder.build());
-        if (cancelKey != null) {
-            cancelCalls.put(cancelKey, call);
+        boolean replayable = !hasOneShotAttachment(finalOptions.files);
+        PreparedRequest prepared = new PreparedRequest(targetUrl, finalOptions, request, timeoutSeconds, replayable, cancelKey, coalesceKey);
+        prepared.hedgeable = replayable && "GET".equals(upperMethod);
+        if (!requestListeners.isEmpty()) {
+            prepared.path = path;
+        }
+        if (loadBalancer.size() > 1) {
+            LoadBalancer.Node primary = loadBalancer.getNodes().get(0);
+            String url = targetUrl.toString();
+            if (primary.urlPrefix != null && url.startsWith(primary.urlPrefix)) {
+                prepared.nodePath = url.substring(primary.urlPrefix.length());
+                prepared.pinnedNode = finalOptions.node != null ? loadBalancer.node(normalizeBaseUrl(finalOptions.node)) : null;
+            }
+        }
+        if (!bulkheads.isEmpty() || !circuitBreakers.isEmpty()) {
+            String group = endpointGroup(path);
+            prepared.group = group;
+            prepared.bulkhead = bulkheads.get(group);
+            prepared.breaker = circuitBreakers.get(group);
         }
+        if (cancelKey != null && coalesceKey == null) {
+            cancelCalls.put(cancelKey, prepared);
+        }
+        return prepared;
+    }
 
-        Response response;
+    private <T> T execute(PreparedRequest prepared, ResponseHandler<T> handler) {
+        Throwable failure = null;
         try {
-            response = call.execute();
-        } catch (IOException io) {
-            throw new ClientResponseError(targetUrl.toString(), null, Collections.emptyMap(), io instanceof java.io.InterruptedIOException, io);
+            if (prepared.bulkhead != null) {
+                awaitPermit(prepared);
+            }
+            if (prepared.hedgeable && hedgingPolicy != null) {
+                return awaitHedged(prepared, handler);
+            }
+            while (true) {
+                Attempt attempt = newAttempt(prepared);
+                Response response;
+                try {
+                    response = attempt.call.execute();
+                } catch (IOException io) {
+                    recordOutcome(prepared, attempt, null, io);
+                    if (failover(prepared, io)) continue;
+                    long delay = retryDelay(prepared, null, io);
+                    if (delay < 0) throw transportError(prepared, io);
+                    awaitRetry(prepared, delay);
+                    continue;
+                }
+
+                recordOutcome(prepared, attempt, response, null);
+                long delay = retryDelay(prepared, response, null);
+                if (delay >= 0) {
+                    response.close();
+                    awaitRetry(prepared, delay);
+                    continue;
+                }
+                return handler.handle(response, prepared);
+            }
+        } catch (RuntimeException | Error err) {
+            failure = err;
+            throw err;
         } finally {
-            if (cancelKey != null) {
-                cancelCalls.remove(cancelKey);
+            finish(prepared);
+            if (prepared.path != null) {
+                notifyListeners(prepared, failure);
             }
         }
+    }
 
-        try (Response resp = response) {
-            int status = resp.code();
-            String contentType = Optional.ofNullable(resp.header("Content-Type")).orElse("").toLowerCase(Locale.US);
-            String rawBody = resp.body() != null ? resp.body().string() : "";
-            JsonNode data;
-            if (status == 204 || rawBody.isEmpty()) {
-                data = NullNode.getInstance();
-            } else if (contentType.contains("application/json")) {
+    private <T> CompletableFuture<T> enqueue(PreparedRequest prepared, ResponseHandler<T> handler) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (prepared.bulkhead == null) {
+            enqueueAttempt(prepared, handler, future);
+        } else {
+            CompletableFuture<Void> permit = prepared.bulkhead.acquire();
+            prepared.waiting = permit;
+            permit.whenComplete((ignored, err) -> {
+                if (err != null) {
+                    finish(prepared);
+                    future.completeExceptionally(permitError(prepared, err));
+                    return;
+                }
+                prepared.permitHeld = true;
+                enqueueAttempt(prepared, handler, future);
+            });
+        }
+        future.whenComplete((result, err) -> {
+            if (future.isCancelled()) {
+                prepared.cancel();
+            }
+            if (prepared.path != null) {
+                notifyListeners(prepared, err);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Blocking send of a hedged request: the attempts run on OkHttp's dispatcher like async sends.
+     */
+    private <T> T awaitHedged(PreparedRequest prepared, ResponseHandler<T> handler) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        enqueueAttempt(prepared, handler, future);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            prepared.cancel();
+            throw transportError(prepared, new java.io.InterruptedIOException("interrupted while waiting for a response"));
+        } catch (java.util.concurrent.ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new ClientResponseError(prepared.url.toString(), e.getCause());
+        }
+    }
+
+    private <T> void enqueueAttempt(PreparedRequest prepared, ResponseHandler<T> handler, CompletableFuture<T> future) {
+        Attempt attempt;
+        try {
+            attempt = newAttempt(prepared);
+        } catch (ClientResponseError err) {
+            finish(prepared);
+            future.completeExceptionally(err);
+            return;
+        }
+        HedgingPolicy hedging = prepared.hedgeable ? hedgingPolicy : null;
+        HedgeRace race = hedging != null ? new HedgeRace(attempt, hedging) : null;
+        attempt.call.enqueue(attemptCallback(prepared, handler, future, attempt, race));
+        if (race != null) {
+            hedging.onRequest();
+            long delay = hedging.getDelayMillis();
+            race.timer = retryScheduler().schedule(() -> {
+                if (race.isDone() || !hedging.tryAcquireHedge()) return;
+                Attempt hedge;
                 try {
-                    data = mapper.readTree(rawBody);
-                } catch (Exception e) {
-                    data = NullNode.getInstance();
+                    hedge = newAttempt(prepared);
+                } catch (ClientResponseError rejected) {
+                    hedging.releaseHedge();
+                    return;
                 }
+                if (!race.add(hedge)) {
+                    hedging.releaseHedge();
+                    hedge.lost = true;
+                    hedge.call.cancel();
+                    recordOutcome(prepared, hedge, null, null);
+                    return;
+                }
+                hedging.onHedge();
+                prepared.hedged = true;
+                hedge.call.enqueue(attemptCallback(prepared, handler, future, hedge, race));
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private <T> Callback attemptCallback(
+        PreparedRequest prepared,
+        ResponseHandler<T> handler,
+        CompletableFuture<T> future,
+        Attempt attempt,
+        HedgeRace race
+    ) {
+        return new Callback() {
+            @Override
+            public void onFailure(Call call, IOException io) {
+                recordOutcome(prepared, attempt, null, io);
+                if (race != null && !race.settle(attempt, false)) return;
+                if (failover(prepared, io)) {
+                    enqueueAttempt(prepared, handler, future);
+                    return;
+                }
+                long delay = retryDelay(prepared, null, io);
+                if (delay >= 0) {
+                    scheduleRetry(prepared, delay, () -> enqueueAttempt(prepared, handler, future), future);
+                    return;
+                }
+                finish(prepared);
+                future.completeExceptionally(transportError(prepared, io));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                recordOutcome(prepared, attempt, response, null);
+                if (race != null) {
+                    if (!race.settle(attempt, true)) {
+                        response.close();
+                        return;
+                    }
+                    if (attempt != race.first) race.policy.onHedgeWin();
+                }
+                long delay = retryDelay(prepared, response, null);
+                if (delay >= 0) {
+                    response.close();
+                    scheduleRetry(prepared, delay, () -> enqueueAttempt(prepared, handler, future), future);
+                    return;
+                }
+                finish(prepared);
+                try {
+                    future.complete(handler.handle(response, prepared));
+                } catch (Throwable err) {
+                    future.completeExceptionally(err);
+                }
+            }
+        };
+    }
+
+    private Attempt newAttempt(PreparedRequest prepared) {
+        CircuitBreaker breaker = prepared.breaker;
+        if (breaker != null && !breaker.tryAcquire()) {
+            throw rejectedError(prepared, "Circuit breaker for '" + prepared.group + "' is open.");
+        }
+        Request request = prepared.request;
+        LoadBalancer.Node node = null;
+        if (prepared.nodePath != null) {
+            node = prepared.pinnedNode != null ? prepared.pinnedNode : loadBalancer.select();
+            if (node != loadBalancer.getNodes().get(0)) {
+                request = request.newBuilder().url(node.urlPrefix + prepared.nodePath).build();
+            }
+            loadBalancer.onStart(node);
+        }
+        MetricsEventListener.Timings timings = null;
+        OkHttpClient client = httpClient;
+        if (prepared.path != null) {
+            timings = new MetricsEventListener.Timings();
+            request = request.newBuilder().tag(MetricsEventListener.Timings.class, timings).build();
+            client = metricsClient;
+        }
+        Call call = client.newCall(request);
+        if (prepared.timeoutSeconds != null) {
+            call.timeout().timeout(prepared.timeoutSeconds, TimeUnit.SECONDS);
+        }
+        Attempt attempt = new Attempt(call, node, timings);
+        prepared.track(attempt);
+        if (prepared.cancelled) {
+            call.cancel();
+        }
+        return attempt;
+    }
+
+    /**
+     * Feeds a finished attempt to the load balancer, circuit breaker and hedging statistics. An attempt
+     * that lost a hedge race (or was never run) says nothing about the server's health.
+     */
+    private void recordOutcome(PreparedRequest prepared, Attempt attempt, Response response, IOException error) {
+        prepared.untrack(attempt);
+        long elapsed = System.nanoTime() - attempt.startNanos;
+        boolean ignored = attempt.lost || (error != null && prepared.cancelled);
+        if (!attempt.lost) {
+            prepared.lastAttempt = attempt;
+            prepared.lastStatus = response != null ? response.code() : null;
+        }
+        if (attempt.node != null) {
+            // a hedge loser was at least this slow, which is worth knowing for latency-based balancing
+            long latency = response != null || attempt.lost ? elapsed : -1;
+            loadBalancer.onComplete(attempt.node, latency, !ignored && isConnectFailure(error));
+        }
+        HedgingPolicy hedging = hedgingPolicy;
+        if (hedging != null && prepared.hedgeable && response != null && !attempt.lost) {
+            hedging.recordLatency(elapsed);
+        }
+        CircuitBreaker breaker = prepared.breaker;
+        if (breaker == null) return;
+        if (ignored || (response == null && error == null)) {
+            breaker.onIgnored();
+        } else {
+            breaker.onComplete(elapsed, error != null || response.code() >= 500);
+        }
+    }
+
+
+    private void notifyListeners(PreparedRequest prepared, Throwable error) {
+        if (error instanceof java.util.concurrent.CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        Integer status = prepared.lastStatus;
+        if (error instanceof ClientResponseError && ((ClientResponseError) error).getStatus() != null) {
+            status = ((ClientResponseError) error).getStatus();
+        }
+        Attempt attempt = prepared.lastAttempt;
+        MetricsEventListener.Timings timings = attempt != null ? attempt.timings : null;
+        long dns = -1;
+        long connect = -1;
+        long tls = -1;
+        long ttfb = -1;
+        long body = -1;
+        long requestBytes = 0;
+        long responseBytes = 0;
+        if (timings != null) {
+            dns = MetricsEventListener.Timings.span(timings.dnsStart, timings.dnsEnd);
+            connect = MetricsEventListener.Timings.span(timings.connectStart, timings.connectEnd);
+            tls = MetricsEventListener.Timings.span(timings.secureConnectStart, timings.secureConnectEnd);
+            ttfb = MetricsEventListener.Timings.span(timings.callStart, timings.responseHeadersStart);
+            body = MetricsEventListener.Timings.span(timings.responseBodyStart, timings.responseBodyEnd);
+            requestBytes = timings.requestBytes;
+            responseBytes = timings.responseBytes;
+        }
+        RequestMetrics metrics = new RequestMetrics(
+            prepared.request.method(),
+            RequestMetrics.routeTemplate(prepared.path),
+            prepared.url.toString(),
+            status,
+            error,
+            prepared.retries,
+            prepared.hedged,
+            System.nanoTime() - prepared.startNanos,
+            dns,
+            connect,
+            tls,
+            ttfb,
+            body,
+            requestBytes,
+            responseBytes
+        );
+        for (RequestListener listener : requestListeners) {
+            try {
+                listener.onRequestEnd(metrics);
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * A request that could not connect never reached the server, so it is re-sent to another node right
+     * away (at most once per other node) instead of going through the retry policy.
+     */
+    private boolean failover(PreparedRequest prepared, IOException error) {
+        if (prepared.nodePath == null || prepared.pinnedNode != null || prepared.cancelled || !prepared.replayable) return false;
+        if (!isConnectFailure(error) || prepared.failovers >= loadBalancer.size() - 1) return false;
+        prepared.failovers++;
+        return true;
+    }
+
+    private static boolean isConnectFailure(IOException error) {
+        return error instanceof java.net.ConnectException
+            || error instanceof java.net.NoRouteToHostException
+            || error instanceof java.net.UnknownHostException;
+    }
+
+    private void awaitPermit(PreparedRequest prepared) {
+        CompletableFuture<Void> permit = prepared.bulkhead.acquire();
+        prepared.waiting = permit;
+        try {
+            permit.get();
+            prepared.permitHeld = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+                prepared.permitHeld = true;
+            }
+            prepared.cancel();
+            throw transportError(prepared, new java.io.InterruptedIOException("interrupted while waiting for a bulkhead permit"));
+        } catch (Exception e) {
+            throw permitError(prepared, e instanceof java.util.concurrent.ExecutionException ? e.getCause() : e);
+        }
+    }
+
+    private ClientResponseError permitError(PreparedRequest prepared, Throwable err) {
+        if (prepared.cancelled || err instanceof java.util.concurrent.CancellationException) {
+            return transportError(prepared, new java.io.InterruptedIOException("Canceled"));
+        }
+        return rejectedError(prepared, "Bulkhead for '" + prepared.group + "' is full.");
+    }
+
+    private ClientResponseError rejectedError(PreparedRequest prepared, String message) {
+        return new ClientResponseError(
+            prepared.url.toString(),
+            null,
+            Map.of("message", message),
+            false,
+            new java.util.concurrent.RejectedExecutionException(message)
+        );
+    }
+
+    /**
+     * Releases what a finished request held: its cancel key and its bulkhead permit.
+     */
+    private void finish(PreparedRequest prepared) {
+        releaseCancelKey(prepared);
+        if (prepared.permitHeld) {
+            prepared.permitHeld = false;
+            prepared.bulkhead.release();
+        }
+    }
+
+    /**
+     * Asks the retry policy about the attempt that just finished; returns the delay before the next
+     * attempt or -1 when the outcome is final.
+     */
+    private long retryDelay(PreparedRequest prepared, Response response, IOException error) {
+        RetryPolicy policy = retryPolicy;
+        if (policy == null || policy == RetryPolicy.NONE || prepared.cancelled || !prepared.replayable) return -1;
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - prepared.startNanos);
+        long delay = policy.retryDelayMillis(prepared.request, prepared.retries + 1, elapsedMillis, response, error);
+        if (delay >= 0) {
+            prepared.retries++;
+        }
+        return delay;
+    }
+
+    private void awaitRetry(PreparedRequest prepared, long delayMillis) {
+        CompletableFuture<Void> timer = retryTimer(prepared, delayMillis);
+        try {
+            timer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            prepared.cancel();
+            throw transportError(prepared, new java.io.InterruptedIOException("interrupted while waiting to retry"));
+        } catch (Exception e) {
+            throw transportError(prepared, new java.io.InterruptedIOException("Canceled"));
+        }
+    }
+
+    private void scheduleRetry(PreparedRequest prepared, long delayMillis, Runnable next, CompletableFuture<?> future) {
+        retryTimer(prepared, delayMillis).whenComplete((ignored, err) -> {
+            if (err != null) {
+                finish(prepared);
+                future.completeExceptionally(transportError(prepared, new java.io.InterruptedIOException("Canceled")));
             } else {
-                data = mapper.getNodeFactory().textNode(rawBody);
+                next.run();
+            }
+        });
+    }
+
+    /**
+     * A timer future completed by the retry scheduler; {@link PreparedRequest#cancel()} cancels it.
+     */
+    private CompletableFuture<Void> retryTimer(PreparedRequest prepared, long delayMillis) {
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        prepared.waiting = timer;
+        ScheduledFuture<?> scheduled = retryScheduler().schedule(() -> timer.complete(null), delayMillis, TimeUnit.MILLISECONDS);
+        timer.whenComplete((ignored, err) -> scheduled.cancel(false));
+        if (prepared.cancelled) {
+            timer.cancel(false);
+        }
+        return timer;
+    }
+
+    private static boolean hasOneShotAttachment(Map<String, java.util.List<FileAttachment>> files) {
+        if (files == null) return false;
+        for (java.util.List<FileAttachment> attachments : files.values()) {
+            for (FileAttachment attachment : attachments) {
+                if (attachment.isOneShot()) return true;
             }
+        }
+        return false;
+    }
+
+    private JsonNode sendCoalesced(PreparedRequest prepared) {
+        CompletableFuture<JsonNode> shared = new CompletableFuture<>();
+        CompletableFuture<JsonNode> existing = inFlightGets.putIfAbsent(prepared.coalesceKey, shared);
+        if (existing != null) {
+            collapsedRequests.incrementAndGet();
+            try {
+                return existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClientResponseError(prepared.url.toString(), null, Collections.emptyMap(), true, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                throw new ClientResponseError(prepared.url.toString(), cause);
+            }
+        }
+
+        registerCancelKey(prepared);
+        try {
+            JsonNode data = execute(prepared, this::handleResponse);
+            shared.complete(data);
+            return data;
+        } catch (RuntimeException err) {
+            shared.completeExceptionally(err);
+            throw err;
+        } finally {
+            inFlightGets.remove(prepared.coalesceKey, shared);
+        }
+    }
+
+    private CompletableFuture<JsonNode> sendCoalescedAsync(PreparedRequest prepared) {
+        CompletableFuture<JsonNode> shared = new CompletableFuture<>();
+        CompletableFuture<JsonNode> existing = inFlightGets.putIfAbsent(prepared.coalesceKey, shared);
+        if (existing != null) {
+            collapsedRequests.incrementAndGet();
+            return existing.thenApply(data -> data);
+        }
+
+        registerCancelKey(prepared);
+        enqueue(prepared, this::handleResponse).whenComplete((data, err) -> {
+            inFlightGets.remove(prepared.coalesceKey, shared);
+            if (err != null) {
+                shared.completeExceptionally(err);
+            } else {
+                shared.complete(data);
+            }
+        });
+        // hand out a dependent future so cancelling one caller does not cancel the shared call
+        return shared.thenApply(data -> data);
+    }
+
+    private <T> T handleTypedResponse(Response response, PreparedRequest prepared, JavaType resultType) {
+        int status = response.code();
+        String contentType = Optional.ofNullable(response.header("Content-Type")).orElse("").toLowerCase(Locale.US);
+        if (status >= 400 || status == 204 || afterSend != null || !contentType.contains("application/json")) {
+            JsonNode data = handleResponse(response, prepared);
+            try {
+                return data.isNull() ? null : JsonUtils.readerFor(resultType).readValue(data);
+            } catch (IOException err) {
+                throw new ClientResponseError(prepared.url.toString(), err);
+            }
+        }
+
+        try (Response resp = response) {
+            return JsonUtils.readResponseBody(resp.body(), resultType);
+        } catch (Exception err) {
+            throw new ClientResponseError(prepared.url.toString(), err);
+        }
+    }
+
+    private JsonNode handleResponse(Response response, PreparedRequest prepared) {
+        HttpUrl targetUrl = prepared.url;
+        try (Response resp = response) {
+            int status = resp.code();
+            String contentType = Optional.ofNullable(resp.header("Content-Type")).orElse("").toLowerCase(Locale.US);
+            JsonNode data = status == 204
+                ? NullNode.getInstance()
+                : JsonUtils.readResponseBody(resp.body(), contentType);
 
             if (status >= 400) {
                 throw new ClientResponseError(
@@ -417,7 +1322,7 @@ public class BosBase {
                 );
             }
 
-            JsonNode resultData = afterSend != null ? afterSend.apply(resp, data, finalOptions) : data;
+            JsonNode resultData = afterSend != null ? afterSend.apply(resp, data, prepared.options) : data;
             return resultData == null ? NullNode.getInstance() : resultData;
         } catch (ClientResponseError cre) {
             throw cre;
@@ -426,19 +1331,29 @@ public class BosBase {
         }
     }
 
-    public JsonNode send(String path, Map<String, Object> query, Map<String, String> headers) {
-        return send(path, "GET", headers, query, null, null, null, null, true);
+    private ClientResponseError transportError(PreparedRequest prepared, IOException io) {
+        boolean isAbort = io instanceof java.io.InterruptedIOException || prepared.cancelled;
+        return new ClientResponseError(prepared.url.toString(), null, Collections.emptyMap(), isAbort, io);
     }
 
-    public JsonNode send(String path, Map<String, Object> query) {
-        return send(path, "GET", null, query, null, null, null, null, true);
+    /**
+     * Auto-cancellation for coalesced requests happens only once the request becomes the leader of
+     * its group, so a request joining an identical in-flight call never cancels it.
+     */
+    private void registerCancelKey(PreparedRequest prepared) {
+        if (prepared.cancelKey != null) {
+            cancelRequest(prepared.cancelKey);
+            cancelCalls.put(prepared.cancelKey, prepared);
+        }
     }
 
-    public JsonNode send(String path) {
-        return send(path, "GET", null, null, null, null, null, null, true);
+    private void releaseCancelKey(PreparedRequest prepared) {
+        if (prepared.cancelKey != null) {
+            cancelCalls.remove(prepared.cancelKey, prepared);
+        }
     }
 
-    private RequestBody buildRequestBody(Object body, Map<String, java.util.List<FileAttachment>> files) {
+    RequestBody buildRequestBody(Object body, Map<String, java.util.List<FileAttachment>> files) {
         JsonNode payloadNode = body == null ? null : JsonUtils.toJsonNode(body);
 
         if (files != null && !files.isEmpty()) {
@@ -456,7 +1371,7 @@ public class BosBase {
                 for (int i = 0; i < attachments.size(); i++) {
                     FileAttachment attachment = attachments.get(i);
                     String partKey = attachments.size() > 1 ? key + "[" + i + "]" : key;
-                    RequestBody partBody = RequestBody.create(attachment.bytes, attachment.mediaType);
+                    RequestBody partBody = attachment.toRequestBody();
                     multipart.addFormDataPart(partKey, attachment.filename, partBody);
                 }
             }
@@ -511,6 +1426,10 @@ public class BosBase {
     private void normalizeRequestKey(RequestOptions options) {
         Object autoCancelFlag = options.query.remove("$autoCancel");
         Object cancelKey = options.query.remove("$cancelKey");
+        Object node = options.query.remove("$node");
+        if (options.node == null && node != null && !node.toString().isBlank()) {
+            options.node = node.toString();
+        }
 
         Object params = options.query.remove("params");
         if (params instanceof Map) {
@@ -542,33 +1461,14 @@ public class BosBase {
         }
     }
 
-    private boolean isTokenExpiring(String token, long thresholdSeconds) {
-        Long exp = getTokenExp(token);
+    private boolean isTokenExpiring(long thresholdSeconds) {
+        Long exp = authStore.getTokenExpiry();
         if (exp == null) return true;
         long threshold = thresholdSeconds < 0 ? 0 : thresholdSeconds;
         long now = System.currentTimeMillis() / 1000;
         return now >= exp - threshold;
     }
 
-    private Long getTokenExp(String token) {
-        if (token == null || token.isBlank()) return null;
-        String[] parts = token.split("\\.");
-        if (parts.length < 2) return null;
-        try {
-            byte[] payload = Base64.getUrlDecoder().decode(padBase64(parts[1]));
-            JsonNode obj = mapper.readTree(payload);
-            JsonNode exp = obj.get("exp");
-            return exp != null && exp.isNumber() ? exp.asLong() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String padBase64(String raw) {
-        int padding = (4 - raw.length() % 4) % 4;
-        return raw + "=".repeat(padding);
-    }
-
     private static void appendQuery(Builder builder, String key, Object value) {
         if (value == null) return;
         if (value instanceof Iterable) {
@@ -591,12 +1491,139 @@ public class BosBase {
         return method != null && java.util.Set.of("POST", "PUT", "PATCH", "DELETE").contains(method.toUpperCase(Locale.US));
     }
 
-    private String normalizeBaseUrl(String url) {
+    private static String normalizeBaseUrl(String url) {
         if (url == null || url.isBlank()) return "/";
         String trimmed = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
         return trimmed.isEmpty() ? "/" : trimmed;
     }
 
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        T handle(Response response, PreparedRequest prepared);
+    }
+
+    /**
+     * One logical request; each attempt (first try or retry) gets its own {@link Call}.
+     */
+    private static class PreparedRequest {
+        final HttpUrl url;
+        final RequestOptions options;
+        final Request request;
+        final Long timeoutSeconds;
+        final boolean replayable;
+        final String cancelKey;
+        final String coalesceKey;
+        final long startNanos = System.nanoTime();
+        String group;
+        Bulkhead bulkhead;
+        CircuitBreaker breaker;
+        /** Request URL relative to the node base URL; {@code null} disables node selection. */
+        String nodePath;
+        LoadBalancer.Node pinnedNode;
+        volatile int failovers;
+        boolean hedgeable;
+        /** Set only while request listeners are registered: the request path for the route template. */
+        String path;
+        volatile boolean hedged;
+        volatile Attempt lastAttempt;
+        volatile Integer lastStatus;
+        /** Attempts currently on the wire: normally one, two while a hedge races the original. */
+        private final java.util.List<Attempt> attempts = new java.util.concurrent.CopyOnWriteArrayList<>();
+        /** Bulkhead permit or retry timer the request is currently waiting on. */
+        volatile CompletableFuture<Void> waiting;
+        volatile boolean permitHeld;
+        volatile boolean cancelled;
+        volatile int retries;
+
+        PreparedRequest(HttpUrl url, RequestOptions options, Request request, Long timeoutSeconds, boolean replayable, String cancelKey, String coalesceKey) {
+            this.url = url;
+            this.options = options;
+            this.request = request;
+            this.timeoutSeconds = timeoutSeconds;
+            this.replayable = replayable;
+            this.cancelKey = cancelKey;
+            this.coalesceKey = coalesceKey;
+        }
+
+        void track(Attempt attempt) {
+            attempts.add(attempt);
+        }
+
+        void untrack(Attempt attempt) {
+            attempts.remove(attempt);
+        }
+
+        void cancel() {
+            cancelled = true;
+            for (Attempt attempt : attempts) {
+                attempt.call.cancel();
+            }
+            CompletableFuture<Void> pending = waiting;
+            if (pending != null) pending.cancel(false);
+        }
+    }
+
+    private static class Attempt {
+        final Call call;
+        final LoadBalancer.Node node;
+        final MetricsEventListener.Timings timings;
+        final long startNanos = System.nanoTime();
+        /** Cancelled because a concurrent hedge attempt answered first. */
+        volatile boolean lost;
+
+        Attempt(Call call, LoadBalancer.Node node, MetricsEventListener.Timings timings) {
+            this.call = call;
+            this.node = node;
+            this.timings = timings;
+        }
+    }
+
+    /**
+     * The original attempt of a hedged request and the hedge that may be started beside it. The first
+     * response wins and cancels the other; a failure only counts once no attempt is left running.
+     */
+    private static class HedgeRace {
+        final Attempt first;
+        final HedgingPolicy policy;
+        private final java.util.List<Attempt> running = new java.util.ArrayList<>(2);
+        private boolean done;
+        volatile ScheduledFuture<?> timer;
+
+        HedgeRace(Attempt first, HedgingPolicy policy) {
+            this.first = first;
+            this.policy = policy;
+            running.add(first);
+        }
+
+        synchronized boolean isDone() {
+            return done;
+        }
+
+        synchronized boolean add(Attempt hedge) {
+            if (done) return false;
+            running.add(hedge);
+            return true;
+        }
+
+        boolean settle(Attempt attempt, boolean responded) {
+            java.util.List<Attempt> losers;
+            synchronized (this) {
+                if (done || !running.remove(attempt)) return false;
+                if (!responded && !running.isEmpty()) return false;
+                done = true;
+                losers = new java.util.ArrayList<>(running);
+                running.clear();
+            }
+            ScheduledFuture<?> pending = timer;
+            if (pending != null) pending.cancel(false);
+            for (Attempt loser : losers) {
+                loser.lost = true;
+                loser.call.cancel();
+            }
+            return true;
+        }
+    }
+
     private static class Pair<F, S> {
         final F first;
         final S second;
@@ -0,0 +1,81 @@
+package com.bosbase.sdk;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Client construction options for {@link BosBase#BosBase(String, BosBaseOptions)}.
+ *
+ * Unset ({@code null}) transport fields keep the values of {@link #httpClient} (or OkHttp's defaults).
+ * Note that the dispatcher limits only apply to async calls ({@code sendAsync}, realtime). Blocking
+ * {@code send} calls are not bounded at all: each calling thread uses its own connection, and the
+ * connection pool only caps how many idle ones are kept. To bound concurrency use {@code sendAsync}
+ * and raise {@link #maxRequests} / {@link #maxRequestsPerHost} as needed, or configure
+ * {@link BosBase#bulkhead(String, Bulkhead)}, which limits blocking calls as well; keep
+ * {@link #maxIdleConnections} near the expected concurrency so connections are reused, or use
+ * {@link #http2PriorKnowledge} to multiplex requests over a few connections.
+ */
+public class BosBaseOptions {
+    public String lang = "en-US";
+    public BaseAuthStore authStore;
+    /** Base client to derive from; shares its thread pools unless the pool/dispatcher options are set. */
+    public OkHttpClient httpClient;
+    /** See {@link BosBase#requestCoalescing(boolean)}. */
+    public boolean requestCoalescing;
+    /** See {@link BosBase#retryPolicy}; e.g. {@code new BackoffRetryPolicy()}. */
+    public RetryPolicy retryPolicy;
+    /** See {@link BosBase#hedgingPolicy}; e.g. {@code new HedgingPolicy()}. */
+    public HedgingPolicy hedgingPolicy;
+
+    static final long DEFAULT_NODE_EJECT_MILLIS = 10_000;
+    /** Node selection for {@link BosBase#BosBase(List, BosBaseOptions)}. */
+    public LoadBalancer.Policy loadBalancingPolicy = LoadBalancer.Policy.ROUND_ROBIN;
+    /** How long a node that refused a connection is skipped (doubling on repeated failures). */
+    public long nodeEjectMillis = DEFAULT_NODE_EJECT_MILLIS;
+
+    public Integer maxIdleConnections;
+    public Long keepAliveMillis;
+    public Integer maxRequests;
+    public Integer maxRequestsPerHost;
+    /** Speak cleartext HTTP/2 without upgrade (h2c), e.g. for local or sidecar deployments. */
+    public boolean http2PriorKnowledge;
+
+    public Long connectTimeoutMillis;
+    public Long readTimeoutMillis;
+    public Long writeTimeoutMillis;
+    /** Default whole-call timeout; a per-request {@code timeoutSeconds} overrides it. */
+    public Long callTimeoutMillis;
+
+    public BosBaseOptions() {}
+
+    OkHttpClient buildHttpClient() {
+        OkHttpClient.Builder builder = httpClient != null ? httpClient.newBuilder() : new OkHttpClient.Builder();
+
+        if (maxIdleConnections != null || keepAliveMillis != null) {
+            builder.connectionPool(new ConnectionPool(
+                maxIdleConnections != null ? maxIdleConnections : 5,
+                keepAliveMillis != null ? keepAliveMillis : TimeUnit.MINUTES.toMillis(5),
+                TimeUnit.MILLISECONDS
+            ));
+        }
+        if (maxRequests != null || maxRequestsPerHost != null) {
+            Dispatcher dispatcher = new Dispatcher();
+            if (maxRequests != null) dispatcher.setMaxRequests(maxRequests);
+            if (maxRequestsPerHost != null) dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+            builder.dispatcher(dispatcher);
+        }
+        if (http2PriorKnowledge) {
+            builder.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+
+        if (connectTimeoutMillis != null) builder.connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (readTimeoutMillis != null) builder.readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (writeTimeoutMillis != null) builder.writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (callTimeoutMillis != null) builder.callTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+        return builder.build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bosbase.sdk;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for one endpoint group (see {@link BosBase#bulkhead(String, Bulkhead)}).
+ *
+ * At most {@code maxConcurrent} requests of the group are in flight; further requests wait in FIFO
+ * order for up to {@code maxWaitMillis} and are then rejected. Async requests wait without holding a
+ * thread, so a slow group cannot fill the shared OkHttp dispatcher.
+ */
+public class Bulkhead {
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    public final int maxConcurrent;
+    public final long maxWaitMillis;
+
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private int active;
+
+    public Bulkhead(int maxConcurrent, long maxWaitMillis) {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("maxConcurrent must be positive");
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+    }
+
+    /**
+     * Returns a future completed once a permit is held, or failed with a {@code TimeoutException}
+     * when none frees up in time. Cancelling the future gives up the wait.
+     */
+    CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> waiter;
+        synchronized (this) {
+            if (active < maxConcurrent) {
+                active++;
+                acceptedCount.incrementAndGet();
+                return GRANTED;
+            }
+            if (maxWaitMillis == 0) {
+                rejectedCount.incrementAndGet();
+                return CompletableFuture.failedFuture(new java.util.concurrent.TimeoutException());
+            }
+            waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+        }
+        waiter.orTimeout(maxWaitMillis, TimeUnit.MILLISECONDS).whenComplete((ignored, err) -> {
+            if (err == null) {
+                acceptedCount.incrementAndGet();
+                return;
+            }
+            synchronized (this) {
+                waiters.remove(waiter);
+            }
+            if (!waiter.isCancelled()) rejectedCount.incrementAndGet();
+        });
+        return waiter;
+    }
+
+    /**
+     * Hands the permit to the next live waiter, or returns it to the pool.
+     */
+    void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            if (next.complete(null)) return;
+        }
+    }
+
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiters.size();
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
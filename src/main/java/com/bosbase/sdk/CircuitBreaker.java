@@ -0,0 +1,173 @@
+package com.bosbase.sdk;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker for one endpoint group (see {@link BosBase#circuitBreaker(String, CircuitBreaker)}).
+ *
+ * Outcomes of the last {@code windowSize} attempts are kept; a failure is a transport error, a 5xx
+ * response, or an attempt slower than {@code slowCallMillis} (0 disables that check). Once at least
+ * {@code minimumCalls} outcomes are known and the failure rate reaches {@code failureRateThreshold}
+ * the breaker opens and requests fail fast. After {@code openMillis} it lets {@code halfOpenTrials}
+ * probe requests through: it closes if all succeed and re-opens on the first failure.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public final double failureRateThreshold;
+    public final long slowCallMillis;
+    public final int windowSize;
+    public final int minimumCalls;
+    public final long openMillis;
+    public final int halfOpenTrials;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong slowCallCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong openCount = new AtomicLong();
+
+    public CircuitBreaker(double failureRateThreshold, long slowCallMillis, int windowSize, long openMillis) {
+        this(failureRateThreshold, slowCallMillis, windowSize, Math.max(1, windowSize / 2), openMillis, 3);
+    }
+
+    public CircuitBreaker(
+        double failureRateThreshold,
+        long slowCallMillis,
+        int windowSize,
+        int minimumCalls,
+        long openMillis,
+        int halfOpenTrials
+    ) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (windowSize <= 0 || minimumCalls <= 0 || halfOpenTrials <= 0) {
+            throw new IllegalArgumentException("windowSize, minimumCalls and halfOpenTrials must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMillis = Math.max(0, slowCallMillis);
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openMillis = Math.max(0, openMillis);
+        this.halfOpenTrials = halfOpenTrials;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Whether an attempt may start now; every permitted attempt must report back through
+     * {@link #onComplete(long, boolean)} or {@link #onIgnored()}.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(openMillis)) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenTrials) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    void onComplete(long durationNanos, boolean error) {
+        boolean slow = slowCallMillis > 0 && durationNanos >= TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        boolean failure = error || slow;
+        if (slow) slowCallCount.incrementAndGet();
+        (failure ? failureCount : successCount).incrementAndGet();
+
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                if (failure) {
+                    open();
+                } else if (++trialsSucceeded >= halfOpenTrials) {
+                    state = State.CLOSED;
+                    windowIndex = 0;
+                    windowCount = 0;
+                    windowFailures = 0;
+                }
+            } else if (state == State.CLOSED) {
+                if (windowCount == windowSize) {
+                    if (window[windowIndex]) windowFailures--;
+                } else {
+                    windowCount++;
+                }
+                window[windowIndex] = failure;
+                if (failure) windowFailures++;
+                windowIndex = (windowIndex + 1) % windowSize;
+                if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+                    open();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports a permitted attempt that was cancelled by the caller and says nothing about the server.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        openCount.incrementAndGet();
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= TimeUnit.MILLISECONDS.toNanos(openMillis)) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Failure rate over the current window, or 0 while it is empty.
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : (double) windowFailures / windowCount;
+    }
+
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getSlowCallCount() {
+        return slowCallCount.get();
+    }
+
+    /** Requests failed fast while open or while the half-open trials were taken. */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /** How many times the breaker has opened. */
+    public long getOpenCount() {
+        return openCount.get();
+    }
+}
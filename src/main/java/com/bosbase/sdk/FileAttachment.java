@@ -2,11 +2,22 @@ package com.bosbase.sdk;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 
 /**
  * Simple wrapper for multipart file uploads.
+ *
+ * Attachments are either held in memory ({@link #bytes}) or streamed from a {@link Path},
+ * {@link FileChannel} or {@link InputStream} when the request body is written, so large files
+ * never need to fit in the heap. {@link #bytes} is {@code null} for streamed attachments.
  */
 public class FileAttachment {
     public final String filename;
@@ -14,17 +25,35 @@ public class FileAttachment {
     public final String contentType;
     public final MediaType mediaType;
 
+    private final Path path;
+    private final FileChannel channel;
+    private final InputStream stream;
+    private final long offset;
+    private final long length;
+
     public FileAttachment(String filename, byte[] bytes, String contentType) {
+        this(filename, bytes, contentType, null, null, null, 0, bytes != null ? bytes.length : 0);
+    }
+
+    private FileAttachment(String filename, byte[] bytes, String contentType, Path path, FileChannel channel, InputStream stream, long offset, long length) {
         this.filename = filename;
         this.bytes = bytes;
         this.contentType = contentType != null ? contentType : "application/octet-stream";
         this.mediaType = MediaType.parse(this.contentType);
+        this.path = path;
+        this.channel = channel;
+        this.stream = stream;
+        this.offset = offset;
+        this.length = length;
     }
 
     public static FileAttachment fromFile(File file) throws IOException {
         return fromFile(file, null);
     }
 
+    /**
+     * Reads the whole file into {@link #bytes}. Use {@link #fromPath(Path, String)} to stream it instead.
+     */
     public static FileAttachment fromFile(File file, String contentType) throws IOException {
         String detected = contentType != null
             ? contentType
@@ -34,4 +63,92 @@ public class FileAttachment {
         }
         return new FileAttachment(file.getName(), Files.readAllBytes(file.toPath()), detected);
     }
+
+    public static FileAttachment fromPath(Path path) throws IOException {
+        return fromPath(path, null);
+    }
+
+    /**
+     * Streams the file from disk when the request is written; the attachment can be re-sent.
+     */
+    public static FileAttachment fromPath(Path path, String contentType) throws IOException {
+        String detected = contentType != null ? contentType : Files.probeContentType(path);
+        if (detected == null || detected.isBlank()) {
+            detected = "application/octet-stream";
+        }
+        return new FileAttachment(path.getFileName().toString(), null, detected, path, null, null, 0, Files.size(path));
+    }
+
+    /**
+     * Streams the remaining bytes of the channel (from its current position). The channel is not
+     * closed; it can be re-sent as long as it stays open.
+     */
+    public static FileAttachment fromChannel(String filename, FileChannel channel, String contentType) throws IOException {
+        long position = channel.position();
+        return new FileAttachment(filename, null, contentType, null, channel, null, position, channel.size() - position);
+    }
+
+    /**
+     * Streams the input once; pass {@code contentLength < 0} when the size is unknown (chunked upload).
+     * The stream is closed after it has been written and cannot be re-sent.
+     */
+    public static FileAttachment fromInputStream(String filename, InputStream stream, long contentLength, String contentType) {
+        return new FileAttachment(filename, null, contentType, null, null, stream, 0, contentLength);
+    }
+
+    /**
+     * Size in bytes, or -1 when unknown.
+     */
+    public long contentLength() {
+        return length;
+    }
+
+    /**
+     * Whether the attachment can only be written once.
+     */
+    public boolean isOneShot() {
+        return stream != null;
+    }
+
+    public RequestBody toRequestBody() {
+        if (bytes != null) {
+            return RequestBody.create(bytes, mediaType);
+        }
+        if (path == null && channel == null && stream == null) {
+            return RequestBody.create(new byte[0], mediaType);
+        }
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return length;
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return stream != null;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                if (channel != null) {
+                    long position = offset;
+                    long end = offset + length;
+                    while (position < end) {
+                        long written = channel.transferTo(position, end - position, sink);
+                        if (written <= 0) break;
+                        position += written;
+                    }
+                    return;
+                }
+                try (Source source = path != null ? Okio.source(path) : Okio.source(stream)) {
+                    sink.writeAll(source);
+                }
+            }
+        };
+    }
 }
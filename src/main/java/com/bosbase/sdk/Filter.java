@@ -0,0 +1,368 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable filter expression that compiles to the server filter syntax, e.g.
+ * {@code Filter.eq("status", "published").and(Filter.gt("views", 10))}.
+ *
+ * The expression string is built once on construction ({@link #toString()}), so instances can be kept
+ * in constants and reused from any thread. Field names may be relation paths ({@code author.role}) and
+ * may carry the {@code :lower}, {@code :length} and {@code :each} modifiers.
+ *
+ * {@link #test(JsonNode)} evaluates the same expression against a record in process, e.g. to filter
+ * realtime events or cached records. Relation paths are looked up in the record and then in its
+ * {@code expand} data. Expressions built with {@link #raw(String)} or using {@code @request.*},
+ * {@code @collection.*} or datetime macros cannot be evaluated locally.
+ */
+public final class Filter {
+    private static final Pattern FIELD = Pattern.compile("[A-Za-z0-9_@][A-Za-z0-9_.@]*(:(lower|length|each|isset))?");
+    private static final Pattern DATETIME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}[ T]\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?Z");
+
+    private enum Kind { COMPARE, AND, OR, RAW }
+
+    private final Kind kind;
+    private final String field;
+    private final String operator;
+    private final Object value;
+    private final List<Filter> children;
+    private final String expression;
+    /** For {@code ~}/{@code !~}: the compiled LIKE pattern, or null for a plain contains check. */
+    private final Pattern likePattern;
+
+    private Filter(Kind kind, String field, String operator, Object value, List<Filter> children, String expression) {
+        this.kind = kind;
+        this.field = field;
+        this.operator = operator;
+        this.value = value;
+        this.children = children;
+        this.expression = expression;
+        this.likePattern = operator != null && operator.endsWith("~") && value != null ? likePattern(String.valueOf(value)) : null;
+    }
+
+    public static Filter eq(String field, Object value) {
+        return compare(field, "=", value);
+    }
+
+    public static Filter neq(String field, Object value) {
+        return compare(field, "!=", value);
+    }
+
+    public static Filter gt(String field, Object value) {
+        return compare(field, ">", value);
+    }
+
+    public static Filter gte(String field, Object value) {
+        return compare(field, ">=", value);
+    }
+
+    public static Filter lt(String field, Object value) {
+        return compare(field, "<", value);
+    }
+
+    public static Filter lte(String field, Object value) {
+        return compare(field, "<=", value);
+    }
+
+    /** Contains; the value is wrapped in {@code %} unless it already has a wildcard. */
+    public static Filter like(String field, String value) {
+        return compare(field, "~", value);
+    }
+
+    public static Filter notLike(String field, String value) {
+        return compare(field, "!~", value);
+    }
+
+    /** At least one item of a multi-value field (select, relation, file) equals the value. */
+    public static Filter anyEq(String field, Object value) {
+        return compare(field, "?=", value);
+    }
+
+    /** The field equals one of the values; compiles to {@code (field = a || field = b)}. */
+    public static Filter in(String field, Collection<?> values) {
+        if (values == null || values.isEmpty()) throw new IllegalArgumentException("values must not be empty.");
+        List<Filter> alternatives = new ArrayList<>(values.size());
+        for (Object value : values) {
+            alternatives.add(eq(field, value));
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : group(Kind.OR, alternatives);
+    }
+
+    public static Filter in(String field, Object... values) {
+        return in(field, values == null ? null : Arrays.asList(values));
+    }
+
+    /**
+     * Any operator from the filter syntax ({@code =, !=, >, >=, <, <=, ~, !~} and their {@code ?}
+     * "any of" variants).
+     */
+    public static Filter compare(String field, String operator, Object value) {
+        if (field == null || !FIELD.matcher(field).matches()) {
+            throw new IllegalArgumentException("Invalid filter field: " + field);
+        }
+        String base = operator != null && operator.startsWith("?") ? operator.substring(1) : operator;
+        if (!"=".equals(base) && !"!=".equals(base) && !">".equals(base) && !">=".equals(base)
+            && !"<".equals(base) && !"<=".equals(base) && !"~".equals(base) && !"!~".equals(base)) {
+            throw new IllegalArgumentException("Invalid filter operator: " + operator);
+        }
+        StringBuilder out = new StringBuilder(field.length() + 16).append(field).append(' ').append(operator).append(' ');
+        FilterTemplate.appendValue(out, value);
+        return new Filter(Kind.COMPARE, field, operator, value, null, out.toString());
+    }
+
+    /** Expression used as is; such filters cannot be {@link #test tested} locally. */
+    public static Filter raw(String expression) {
+        if (expression == null || expression.isBlank()) throw new IllegalArgumentException("expression must be set.");
+        return new Filter(Kind.RAW, null, null, null, null, expression);
+    }
+
+    public static Filter and(Filter... filters) {
+        return group(Kind.AND, Arrays.asList(filters));
+    }
+
+    public static Filter or(Filter... filters) {
+        return group(Kind.OR, Arrays.asList(filters));
+    }
+
+    public Filter and(Filter other) {
+        return group(Kind.AND, List.of(this, other));
+    }
+
+    public Filter or(Filter other) {
+        return group(Kind.OR, List.of(this, other));
+    }
+
+    private static Filter group(Kind kind, List<Filter> filters) {
+        if (filters.isEmpty()) throw new IllegalArgumentException("At least one filter is required.");
+        List<Filter> flat = new ArrayList<>(filters.size());
+        for (Filter filter : filters) {
+            if (filter == null) throw new IllegalArgumentException("filter must not be null.");
+            if (filter.kind == kind) flat.addAll(filter.children); else flat.add(filter);
+        }
+        if (flat.size() == 1) return flat.get(0);
+        String separator = kind == Kind.AND ? " && " : " || ";
+        StringBuilder out = new StringBuilder();
+        for (Filter filter : flat) {
+            if (out.length() > 0) out.append(separator);
+            boolean wrap = filter.kind == Kind.RAW || (filter.kind != Kind.COMPARE && filter.kind != kind);
+            if (wrap) out.append('(').append(filter.expression).append(')'); else out.append(filter.expression);
+        }
+        return new Filter(kind, null, null, null, Collections.unmodifiableList(flat), out.toString());
+    }
+
+    /** The compiled filter string. */
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Filter && expression.equals(((Filter) other).expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    /** Whether {@link #test(JsonNode)} can evaluate this filter (no raw parts, {@code @}-identifiers or {@code :isset}). */
+    public boolean isEvaluable() {
+        switch (kind) {
+            case COMPARE:
+                return !field.startsWith("@") && !field.endsWith(":isset");
+            case RAW:
+                return false;
+            default:
+                for (Filter child : children) {
+                    if (!child.isEvaluable()) return false;
+                }
+                return true;
+        }
+    }
+
+    /**
+     * Evaluates the filter against a record.
+     *
+     * @throws UnsupportedOperationException for raw expressions, {@code @}-identifiers and {@code :isset}
+     */
+    public boolean test(JsonNode record) {
+        switch (kind) {
+            case AND:
+                for (Filter child : children) {
+                    if (!child.test(record)) return false;
+                }
+                return true;
+            case OR:
+                for (Filter child : children) {
+                    if (child.test(record)) return true;
+                }
+                return false;
+            case COMPARE:
+                return testCompare(record);
+            default:
+                throw new UnsupportedOperationException("Raw filter expressions cannot be evaluated locally.");
+        }
+    }
+
+    private boolean testCompare(JsonNode record) {
+        if (field.startsWith("@") || field.endsWith(":isset")) {
+            throw new UnsupportedOperationException("Cannot evaluate " + field + " locally.");
+        }
+        String path = field;
+        String modifier = null;
+        int colon = field.indexOf(':');
+        if (colon >= 0) {
+            path = field.substring(0, colon);
+            modifier = field.substring(colon + 1);
+        }
+
+        List<JsonNode> values = new ArrayList<>();
+        String[] segments = path.split("\\.");
+        collect(record, segments, 0, values);
+        if (values.isEmpty() && record != null && record.has("expand")) {
+            collect(record.get("expand"), segments, 0, values);
+        }
+
+        boolean any = operator.startsWith("?");
+        String op = any ? operator.substring(1) : operator;
+
+        if ("length".equals(modifier)) {
+            int length = values.size() == 1 && values.get(0).isArray() ? values.get(0).size() : flatten(values).size();
+            return compareValue(JsonUtils.MAPPER.getNodeFactory().numberNode(length), op, value, false);
+        }
+
+        List<JsonNode> items = flatten(values);
+        boolean lower = "lower".equals(modifier);
+        if (items.isEmpty()) {
+            return compareValue(null, op, value, lower);
+        }
+        if (items.size() == 1) {
+            return compareValue(items.get(0), op, value, lower);
+        }
+        // several values (multi relation/select or a path through them): "?" operators need one match, others all
+        for (JsonNode item : items) {
+            boolean matched = compareValue(item, op, value, lower);
+            if (any && matched) return true;
+            if (!any && !matched) return false;
+        }
+        return !any;
+    }
+
+    private static void collect(JsonNode node, String[] segments, int index, List<JsonNode> out) {
+        if (node == null || node.isMissingNode() || node.isNull()) return;
+        if (index == segments.length) {
+            out.add(node);
+            return;
+        }
+        if (node.isArray()) {
+            for (JsonNode item : node) {
+                collect(item, segments, index, out);
+            }
+            return;
+        }
+        JsonNode next = node.get(segments[index]);
+        if (next == null && index > 0 && node.has("expand")) {
+            next = node.get("expand").get(segments[index]);
+        }
+        collect(next, segments, index + 1, out);
+    }
+
+    private static List<JsonNode> flatten(List<JsonNode> values) {
+        List<JsonNode> items = new ArrayList<>(values.size());
+        for (JsonNode value : values) {
+            if (value.isArray()) value.forEach(items::add); else items.add(value);
+        }
+        return items;
+    }
+
+    private boolean compareValue(JsonNode actual, String op, Object expected, boolean lower) {
+        if ("~".equals(op) || "!~".equals(op)) {
+            String text = actual == null || actual.isNull() ? "" : asText(actual).toLowerCase(Locale.ROOT);
+            boolean matched = likePattern != null
+                ? likePattern.matcher(text).matches()
+                : text.contains(expected == null ? "" : String.valueOf(expected).toLowerCase(Locale.ROOT));
+            return "~".equals(op) == matched;
+        }
+
+        boolean actualEmpty = actual == null || actual.isNull() || (actual.isTextual() && actual.asText().isEmpty());
+        boolean expectedEmpty = expected == null || "".equals(expected);
+        if (actualEmpty || expectedEmpty) {
+            if ("=".equals(op)) return actualEmpty && expectedEmpty;
+            if ("!=".equals(op)) return actualEmpty != expectedEmpty;
+        }
+        if (actual == null || actual.isNull() || expected == null) return false;
+
+        int cmp;
+        if (actual.isNumber() && expected instanceof Number) {
+            cmp = actual.decimalValue().compareTo(new BigDecimal(expected.toString()));
+        } else if (actual.isBoolean() && expected instanceof Boolean) {
+            cmp = Boolean.compare(actual.booleanValue(), (Boolean) expected);
+        } else {
+            String left = asText(actual);
+            String right = literal(expected);
+            if (lower) {
+                left = left.toLowerCase(Locale.ROOT);
+                right = right.toLowerCase(Locale.ROOT);
+            }
+            Instant leftTime = datetime(left);
+            Instant rightTime = leftTime != null ? datetime(right) : null;
+            cmp = rightTime != null ? leftTime.compareTo(rightTime) : left.compareTo(right);
+        }
+
+        switch (op) {
+            case "=": return cmp == 0;
+            case "!=": return cmp != 0;
+            case ">": return cmp > 0;
+            case ">=": return cmp >= 0;
+            case "<": return cmp < 0;
+            case "<=": return cmp <= 0;
+            default: return false;
+        }
+    }
+
+    private static String asText(JsonNode node) {
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof Date) return ((Date) value).toInstant().toString();
+        if (value instanceof TemporalAccessor || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return JsonUtils.MAPPER.valueToTree(value).toString();
+    }
+
+    private static Instant datetime(String text) {
+        if (text.length() < 20 || !DATETIME.matcher(text).matches()) return null;
+        return Instant.parse(text.replace(' ', 'T'));
+    }
+
+    /**
+     * Case-insensitive LIKE pattern with {@code %} and {@code _} wildcards; null when the value has no
+     * {@code %}, in which case the server matches it as a plain substring.
+     */
+    private static Pattern likePattern(String pattern) {
+        if (pattern.indexOf('%') < 0) return null;
+        String p = pattern.toLowerCase(Locale.ROOT);
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < p.length(); i++) {
+            char c = p.charAt(i);
+            if (c == '%') regex.append(".*");
+            else if (c == '_') regex.append('.');
+            else regex.append(Pattern.quote(String.valueOf(c)));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
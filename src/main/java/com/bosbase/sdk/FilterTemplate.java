@@ -0,0 +1,126 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A filter expression with {@code {:name}} placeholders, parsed once and rendered in a single pass.
+ *
+ * Instances are immutable and safe to share between threads. Values are escaped the same way as
+ * {@link BosBase#filter}; placeholders without a matching parameter are left as they are.
+ */
+public final class FilterTemplate {
+    private final String raw;
+    /** Literal text around the placeholders; always {@code names.length + 1} entries. */
+    private final String[] literals;
+    private final String[] names;
+
+    private FilterTemplate(String raw, String[] literals, String[] names) {
+        this.raw = raw;
+        this.literals = literals;
+        this.names = names;
+    }
+
+    public static FilterTemplate compile(String raw) {
+        if (raw == null) throw new IllegalArgumentException("raw must be set.");
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int from = 0;
+        while (true) {
+            int open = raw.indexOf("{:", from);
+            if (open < 0) break;
+            int close = -1;
+            for (int i = open + 2; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (c == '}') {
+                    close = i;
+                    break;
+                }
+                if (c == '{') break;
+            }
+            if (close < 0) {
+                from = open + 1;
+                continue;
+            }
+            literals.add(raw.substring(literalStart, open));
+            names.add(raw.substring(open + 2, close));
+            literalStart = close + 1;
+            from = literalStart;
+        }
+        literals.add(raw.substring(literalStart));
+        return new FilterTemplate(raw, literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    /** Placeholder names in order of appearance (repeated names are listed each time). */
+    public List<String> getParameterNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    public String render(Map<String, Object> params) {
+        if (names.length == 0 || params == null || params.isEmpty()) return raw;
+        StringBuilder out = new StringBuilder(raw.length() + names.length * 16);
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            String name = names[i];
+            Object val = params.get(name);
+            if (val != null || params.containsKey(name)) {
+                appendValue(out, val);
+            } else {
+                out.append("{:").append(name).append('}');
+            }
+        }
+        return out.append(literals[names.length]).toString();
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+
+    /**
+     * Appends a value as a filter literal: numbers and booleans as is, dates as quoted UTC strings
+     * and anything else as a quoted string (objects are serialized to JSON first).
+     */
+    static void appendValue(StringBuilder out, Object val) {
+        if (val == null) {
+            out.append("null");
+        } else if (val instanceof Boolean || val instanceof Number) {
+            out.append(val);
+        } else if (val instanceof String) {
+            appendQuoted(out, (String) val);
+        } else if (val instanceof Date) {
+            out.append('\'').append(((Date) val).toInstant().toString().replace('T', ' ')).append('\'');
+        } else if (val instanceof TemporalAccessor) {
+            out.append('\'').append(val).append('\'');
+        } else {
+            String json;
+            try {
+                json = JsonUtils.MAPPER.writeValueAsString(val);
+            } catch (JsonProcessingException e) {
+                json = val.toString();
+            }
+            appendQuoted(out, json);
+        }
+    }
+
+    private static void appendQuoted(StringBuilder out, String value) {
+        out.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'') out.append('\\');
+            out.append(c);
+        }
+        out.append('\'');
+    }
+}
@@ -0,0 +1,101 @@
+package com.bosbase.sdk;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in request hedging for GET requests (see {@link BosBase#hedgingPolicy}).
+ *
+ * When a GET has not answered after the {@code percentile} latency of recent GETs (clamped to
+ * {@code minDelayMillis}..{@code maxDelayMillis}) a duplicate is sent, possibly to another node; the
+ * first response wins and the other call is cancelled. Every request earns {@code budgetRatio} hedge
+ * tokens (up to a small burst), so hedges add at most that fraction of extra load.
+ */
+public class HedgingPolicy {
+    private static final int SAMPLE_SIZE = 512;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 32;
+    private static final double MAX_TOKENS = 10;
+
+    public final double percentile;
+    public final long minDelayMillis;
+    public final long maxDelayMillis;
+    public final double budgetRatio;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleIndex;
+    private int sampleCount;
+    private int sinceRecompute;
+    private volatile long delayMillis;
+    private double tokens = MAX_TOKENS;
+
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    public HedgingPolicy() {
+        this(0.95, 10, 1_000, 0.05);
+    }
+
+    public HedgingPolicy(double percentile, long minDelayMillis, long maxDelayMillis, double budgetRatio) {
+        if (percentile <= 0 || percentile >= 1) throw new IllegalArgumentException("percentile must be in (0, 1)");
+        if (minDelayMillis < 0 || maxDelayMillis < minDelayMillis) throw new IllegalArgumentException("invalid hedge delays");
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.budgetRatio = Math.max(0, budgetRatio);
+        this.delayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Current hedge delay; {@code maxDelayMillis} until enough latencies have been seen.
+     */
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    /** Hedges that answered before the original request. */
+    public long getHedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+
+    synchronized void recordLatency(long nanos) {
+        samples[sampleIndex] = nanos;
+        sampleIndex = (sampleIndex + 1) % SAMPLE_SIZE;
+        if (sampleCount < SAMPLE_SIZE) sampleCount++;
+        if (sampleCount >= MIN_SAMPLES && ++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            long value = TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.min(sampleCount - 1, (long) (percentile * sampleCount))]);
+            delayMillis = Math.max(minDelayMillis, Math.min(maxDelayMillis, value));
+        }
+    }
+
+    synchronized void onRequest() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    synchronized boolean tryAcquireHedge() {
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /** Returns a token taken for a hedge that was not sent after all. */
+    synchronized void releaseHedge() {
+        tokens = Math.min(MAX_TOKENS, tokens + 1);
+    }
+
+    void onHedge() {
+        hedgeCount.incrementAndGet();
+    }
+
+    void onHedgeWin() {
+        hedgeWinCount.incrementAndGet();
+    }
+}
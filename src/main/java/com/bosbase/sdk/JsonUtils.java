@@ -1,18 +1,24 @@
 package com.bosbase.sdk;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import java.io.IOException;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import okhttp3.ResponseBody;
 
 public final class JsonUtils {
     private JsonUtils() {}
@@ -26,6 +32,15 @@ public final class JsonUtils {
         MAPPER.findAndRegisterModules();
     }
 
+    private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a cached {@link ObjectReader} bound to the given type.
+     */
+    public static ObjectReader readerFor(JavaType type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
     public static JsonNode toJsonNode(Object value) {
         if (value == null) {
             return NullNode.getInstance();
@@ -39,6 +54,44 @@ public final class JsonUtils {
         return MAPPER.valueToTree(value);
     }
 
+    /**
+     * Decodes a response body straight from its byte stream so JSON payloads are never
+     * materialized as an intermediate String. Non-JSON content types fall back to text.
+     */
+    static JsonNode readResponseBody(ResponseBody body, String contentType) throws IOException {
+        if (body == null) {
+            return NullNode.getInstance();
+        }
+        if (contentType == null || !contentType.contains("application/json")) {
+            String raw = body.string();
+            return raw.isEmpty() ? NullNode.getInstance() : TextNode.valueOf(raw);
+        }
+        try (JsonParser parser = MAPPER.getFactory().createParser(body.byteStream())) {
+            if (parser.nextToken() == null) {
+                return NullNode.getInstance();
+            }
+            JsonNode node = MAPPER.readTree(parser);
+            return node != null ? node : NullNode.getInstance();
+        } catch (JsonProcessingException e) {
+            return NullNode.getInstance();
+        }
+    }
+
+    /**
+     * Binds a JSON response body directly into {@code type}; returns null for an empty body.
+     */
+    static <T> T readResponseBody(ResponseBody body, JavaType type) throws IOException {
+        if (body == null) {
+            return null;
+        }
+        try (JsonParser parser = MAPPER.getFactory().createParser(body.byteStream())) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            return readerFor(type).readValue(parser);
+        }
+    }
+
     public static Map<String, Object> jsonNodeToMap(JsonNode node) {
         if (node == null || node.isNull()) {
             return Collections.emptyMap();
@@ -0,0 +1,202 @@
+package com.bosbase.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.HttpUrl;
+
+/**
+ * Spreads requests over several BosBase nodes (see {@link BosBase#BosBase(List, BosBaseOptions)}).
+ *
+ * A node that refuses connections is ejected for {@code ejectMillis} (doubling on consecutive
+ * ejections, up to 8x) and skipped by {@link #select()} until then; when every node is ejected the
+ * one that comes back first is used. With a single node selection is a no-op.
+ */
+public class LoadBalancer {
+    public enum Policy {
+        ROUND_ROBIN,
+        /** Node with the fewest in-flight requests. */
+        LEAST_OUTSTANDING,
+        /** Node with the lowest latency EWMA weighted by its in-flight requests. */
+        LATENCY_EWMA
+    }
+
+    private static final double EWMA_ALPHA = 0.3;
+    private static final long EWMA_STALE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    public static class Node {
+        public final String baseUrl;
+        /** Canonical {@link HttpUrl} form of {@link #baseUrl}, used to re-target prepared requests. */
+        final String urlPrefix;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong requestCount = new AtomicLong();
+        private final AtomicLong connectFailureCount = new AtomicLong();
+        private volatile double latencyEwmaMillis = -1;
+        private volatile long lastSampleNanos;
+        private volatile long ejectedUntilNanos = System.nanoTime();
+        private volatile int consecutiveEjections;
+
+        Node(String baseUrl) {
+            this.baseUrl = baseUrl;
+            HttpUrl parsed = HttpUrl.parse(baseUrl + "/");
+            this.urlPrefix = parsed != null ? parsed.toString().substring(0, parsed.toString().length() - 1) : null;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        public long getRequestCount() {
+            return requestCount.get();
+        }
+
+        public long getConnectFailureCount() {
+            return connectFailureCount.get();
+        }
+
+        /** Latency EWMA in milliseconds, or -1 before the first response. */
+        public double getLatencyMillis() {
+            return latencyEwmaMillis;
+        }
+
+        public boolean isEjected() {
+            return ejectedUntilNanos - System.nanoTime() > 0;
+        }
+    }
+
+    public final Policy policy;
+    public final long ejectMillis;
+
+    private final List<Node> nodes;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public LoadBalancer(List<String> baseUrls, Policy policy, long ejectMillis) {
+        if (baseUrls == null || baseUrls.isEmpty()) throw new IllegalArgumentException("at least one base URL is required");
+        List<Node> list = new ArrayList<>(baseUrls.size());
+        for (String url : baseUrls) {
+            list.add(new Node(url));
+        }
+        this.nodes = Collections.unmodifiableList(list);
+        this.policy = policy != null ? policy : Policy.ROUND_ROBIN;
+        this.ejectMillis = Math.max(0, ejectMillis);
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * The node registered under the given base URL, or {@code null}.
+     */
+    public Node node(String baseUrl) {
+        for (Node node : nodes) {
+            if (node.baseUrl.equals(baseUrl)) return node;
+        }
+        return null;
+    }
+
+    /**
+     * Chooses the node for the next request (or long-lived connection) according to {@link #policy}.
+     */
+    public Node select() {
+        int count = nodes.size();
+        if (count == 1) return nodes.get(0);
+        long now = System.nanoTime();
+        int start = cursor.getAndIncrement() & Integer.MAX_VALUE;
+
+        if (policy == Policy.ROUND_ROBIN) {
+            for (int i = 0; i < count; i++) {
+                Node node = nodes.get((start + i) % count);
+                if (node.ejectedUntilNanos - now <= 0) return node;
+            }
+            return firstToReturn();
+        }
+
+        double prior = policy == Policy.LATENCY_EWMA ? meanLatency(now) : 0;
+        Node best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            Node node = nodes.get((start + i) % count);
+            if (node.ejectedUntilNanos - now > 0) continue;
+            double cost = node.outstanding.get();
+            if (policy == Policy.LATENCY_EWMA) {
+                cost = (latency(node, now, prior) + 1) * (cost + 1);
+            }
+            if (cost < bestCost) {
+                best = node;
+                bestCost = cost;
+            }
+        }
+        return best != null ? best : firstToReturn();
+    }
+
+    /**
+     * Marks a node as refusing connections, e.g. after a realtime connection failed to open.
+     */
+    public void reportConnectFailure(Node node) {
+        node.connectFailureCount.incrementAndGet();
+        int ejections = Math.min(3, node.consecutiveEjections);
+        node.consecutiveEjections = ejections + 1;
+        node.ejectedUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ejectMillis << ejections);
+    }
+
+    void onStart(Node node) {
+        node.outstanding.incrementAndGet();
+        node.requestCount.incrementAndGet();
+    }
+
+    /**
+     * Records a finished attempt; {@code latencyNanos} is negative when no response arrived.
+     */
+    void onComplete(Node node, long latencyNanos, boolean connectFailure) {
+        node.outstanding.decrementAndGet();
+        if (connectFailure) {
+            reportConnectFailure(node);
+            return;
+        }
+        node.consecutiveEjections = 0;
+        if (latencyNanos >= 0) {
+            double sample = latencyNanos / 1_000_000.0;
+            double current = node.latencyEwmaMillis;
+            node.latencyEwmaMillis = current < 0 ? sample : current + EWMA_ALPHA * (sample - current);
+            node.lastSampleNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Nodes without a recent sample are costed at the mean of the others so they get probed again.
+     */
+    private static double latency(Node node, long now, double prior) {
+        double ewma = node.latencyEwmaMillis;
+        if (ewma < 0 || now - node.lastSampleNanos > EWMA_STALE_NANOS) return prior;
+        return ewma;
+    }
+
+    private double meanLatency(long now) {
+        double sum = 0;
+        int sampled = 0;
+        for (Node node : nodes) {
+            double ewma = node.latencyEwmaMillis;
+            if (ewma >= 0 && now - node.lastSampleNanos <= EWMA_STALE_NANOS) {
+                sum += ewma;
+                sampled++;
+            }
+        }
+        return sampled == 0 ? 0 : sum / sampled;
+    }
+
+    private Node firstToReturn() {
+        Node first = nodes.get(0);
+        for (Node node : nodes) {
+            if (node.ejectedUntilNanos - first.ejectedUntilNanos < 0) first = node;
+        }
+        return first;
+    }
+}
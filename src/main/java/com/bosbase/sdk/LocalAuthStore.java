@@ -2,14 +2,51 @@ package com.bosbase.sdk;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.prefs.PreferenceChangeEvent;
+import java.util.prefs.PreferenceChangeListener;
 import java.util.prefs.Preferences;
 
 /**
  * Persistent auth store backed by Java Preferences (desktop/server JVM).
  * Android callers can implement their own BaseAuthStore using SharedPreferences.
+ *
+ * Token and model are served from memory. Changes are persisted write-behind on a background
+ * thread shared by all stores (it exits when idle), coalesced so only the latest state is written.
+ * Changes made to the same Preferences node by other stores in this JVM are picked up through a
+ * preference change listener. Changes made by other processes are picked up by {@link #getToken()},
+ * which re-reads the node at most once per second; the default file-backed Preferences only see
+ * another process' write after their periodic sync.
  */
 public class LocalAuthStore extends BaseAuthStore {
+    private static final ThreadPoolExecutor WRITER = new ThreadPoolExecutor(
+        1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "bosbase-auth-store");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    private static final long RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    static {
+        WRITER.allowCoreThreadTimeOut(true);
+    }
+
     private final Preferences prefs;
+    private final ReloadListener listener;
+    private final AtomicReference<PersistedState> pending = new AtomicReference<>();
+    private final Object persistLock = new Object();
+    private String persistedToken;
+    private String persistedModel;
+    private boolean closed;
+    private volatile long lastReload = System.nanoTime();
 
     public LocalAuthStore() {
         this("bosbase.auth");
@@ -18,16 +55,116 @@ public class LocalAuthStore extends BaseAuthStore {
     public LocalAuthStore(String namespace) {
         super();
         this.prefs = Preferences.userRoot().node(namespace);
+        synchronized (persistLock) {
+            persistedToken = prefs.get("token", null);
+            persistedModel = prefs.get("model", null);
+            baseToken = persistedToken;
+            baseModel = parseModel(persistedModel);
+        }
+        listener = new ReloadListener(this);
+        prefs.addPreferenceChangeListener(listener);
     }
 
     @Override
     public String getToken() {
-        return prefs.get("token", null);
+        long now = System.nanoTime();
+        if (now - lastReload >= RELOAD_INTERVAL_NANOS) {
+            lastReload = now;
+            reloadIfChangedExternally();
+        }
+        return super.getToken();
     }
 
     @Override
-    public ObjectNode getModel() {
-        String raw = prefs.get("model", null);
+    public void save(String newToken, ObjectNode newModel) {
+        super.save(newToken, newModel);
+        persistLater(new PersistedState(newToken, newModel));
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        persistLater(new PersistedState(null, null));
+    }
+
+    /**
+     * Blocks until every pending change has been written to the Preferences node.
+     */
+    public void flush() {
+        try {
+            WRITER.submit(this::persistPending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+        }
+    }
+
+    /**
+     * Flushes pending changes and stops picking up changes made by other stores or processes. Later
+     * changes are still persisted.
+     */
+    public void close() {
+        flush();
+        synchronized (persistLock) {
+            if (closed) return;
+            closed = true;
+        }
+        listener.remove(prefs);
+    }
+
+    private void persistLater(PersistedState state) {
+        if (pending.getAndSet(state) == null) {
+            WRITER.execute(this::persistPending);
+        }
+    }
+
+    private void persistPending() {
+        PersistedState state = pending.getAndSet(null);
+        if (state == null) return;
+
+        String rawModel = null;
+        if (state.model != null) {
+            try {
+                rawModel = mapper.writeValueAsString(state.model);
+            } catch (Exception ignored) {
+            }
+        }
+        synchronized (persistLock) {
+            persistedToken = state.token;
+            persistedModel = rawModel;
+            if (state.token != null) {
+                prefs.put("token", state.token);
+            } else {
+                prefs.remove("token");
+            }
+            if (rawModel != null) {
+                prefs.put("model", rawModel);
+            } else {
+                prefs.remove("model");
+            }
+        }
+    }
+
+    private void reloadIfChangedExternally() {
+        String token;
+        ObjectNode model;
+        synchronized (persistLock) {
+            if (closed) return;
+            if (pending.get() != null) return; // our own newer state wins
+            String rawToken = prefs.get("token", null);
+            String rawModel = prefs.get("model", null);
+            if (Objects.equals(rawToken, persistedToken) && Objects.equals(rawModel, persistedModel)) return;
+            persistedToken = rawToken;
+            persistedModel = rawModel;
+            token = rawToken;
+            model = parseModel(rawModel);
+        }
+        baseToken = token;
+        baseModel = model;
+        triggerChange();
+    }
+
+    private ObjectNode parseModel(String raw) {
         if (raw == null) return null;
         try {
             JsonNode node = mapper.readTree(raw);
@@ -37,24 +174,47 @@ public class LocalAuthStore extends BaseAuthStore {
         }
     }
 
-    @Override
-    public void save(String newToken, ObjectNode newModel) {
-        prefs.put("token", newToken);
-        if (newModel != null) {
+    /**
+     * Holds the store weakly: the Preferences node keeps its listeners for the life of the JVM, so a
+     * strong reference would keep every store that was never closed. A listener whose store was
+     * collected removes itself on the next event.
+     */
+    private static class ReloadListener implements PreferenceChangeListener {
+        private final WeakReference<LocalAuthStore> store;
+        private boolean removed;
+
+        ReloadListener(LocalAuthStore store) {
+            this.store = new WeakReference<>(store);
+        }
+
+        @Override
+        public void preferenceChange(PreferenceChangeEvent evt) {
+            LocalAuthStore current = store.get();
+            if (current != null) {
+                current.reloadIfChangedExternally();
+            } else {
+                remove(evt.getNode());
+            }
+        }
+
+        synchronized void remove(Preferences node) {
+            if (removed) return;
+            removed = true;
             try {
-                prefs.put("model", mapper.writeValueAsString(newModel));
-            } catch (Exception ignored) {
+                node.removePreferenceChangeListener(this);
+            } catch (IllegalArgumentException | IllegalStateException ignored) {
+                // already removed, or the node was removed
             }
-        } else {
-            prefs.remove("model");
         }
-        triggerChange();
     }
 
-    @Override
-    public void clear() {
-        prefs.remove("token");
-        prefs.remove("model");
-        triggerChange();
+    private static class PersistedState {
+        final String token;
+        final ObjectNode model;
+
+        PersistedState(String token, ObjectNode model) {
+            this.token = token;
+            this.model = model;
+        }
     }
 }
@@ -0,0 +1,221 @@
+package com.bosbase.sdk;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Records connection and transfer timings of one attempt into the {@link Timings} tagged on its
+ * request, then forwards every event to the listener of the wrapped client's own factory.
+ */
+class MetricsEventListener extends EventListener {
+    /** Event timestamps ({@code System.nanoTime()}, 0 when the phase did not happen) and byte counts. */
+    static class Timings {
+        volatile long callStart;
+        volatile long dnsStart;
+        volatile long dnsEnd;
+        volatile long connectStart;
+        volatile long connectEnd;
+        volatile long secureConnectStart;
+        volatile long secureConnectEnd;
+        volatile long responseHeadersStart;
+        volatile long responseBodyStart;
+        volatile long responseBodyEnd;
+        volatile long requestBytes;
+        volatile long responseBytes;
+
+        static long span(long start, long end) {
+            return start != 0 && end != 0 ? end - start : -1;
+        }
+    }
+
+    static class Factory implements EventListener.Factory {
+        private final EventListener.Factory delegate;
+
+        Factory(EventListener.Factory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public EventListener create(Call call) {
+            EventListener next = delegate != null ? delegate.create(call) : EventListener.NONE;
+            Timings timings = call.request().tag(Timings.class);
+            return timings != null ? new MetricsEventListener(timings, next) : next;
+        }
+    }
+
+    private final Timings timings;
+    private final EventListener next;
+
+    MetricsEventListener(Timings timings, EventListener next) {
+        this.timings = timings;
+        this.next = next;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        timings.callStart = System.nanoTime();
+        next.callStart(call);
+    }
+
+    @Override
+    public void proxySelectStart(Call call, HttpUrl url) {
+        next.proxySelectStart(call, url);
+    }
+
+    @Override
+    public void proxySelectEnd(Call call, HttpUrl url, List<Proxy> proxies) {
+        next.proxySelectEnd(call, url, proxies);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        timings.dnsStart = System.nanoTime();
+        next.dnsStart(call, domainName);
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+        timings.dnsEnd = System.nanoTime();
+        next.dnsEnd(call, domainName, addresses);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+        timings.connectStart = System.nanoTime();
+        next.connectStart(call, address, proxy);
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        timings.secureConnectStart = System.nanoTime();
+        next.secureConnectStart(call);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        timings.secureConnectEnd = System.nanoTime();
+        next.secureConnectEnd(call, handshake);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+        timings.connectEnd = System.nanoTime();
+        next.connectEnd(call, address, proxy, protocol);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol, IOException ioe) {
+        next.connectFailed(call, address, proxy, protocol, ioe);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        next.connectionAcquired(call, connection);
+    }
+
+    @Override
+    public void connectionReleased(Call call, Connection connection) {
+        next.connectionReleased(call, connection);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        next.requestHeadersStart(call);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        next.requestHeadersEnd(call, request);
+    }
+
+    @Override
+    public void requestBodyStart(Call call) {
+        next.requestBodyStart(call);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        timings.requestBytes = byteCount;
+        next.requestBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void requestFailed(Call call, IOException ioe) {
+        next.requestFailed(call, ioe);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        timings.responseHeadersStart = System.nanoTime();
+        next.responseHeadersStart(call);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        next.responseHeadersEnd(call, response);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        timings.responseBodyStart = System.nanoTime();
+        next.responseBodyStart(call);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        timings.responseBodyEnd = System.nanoTime();
+        timings.responseBytes = byteCount;
+        next.responseBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void responseFailed(Call call, IOException ioe) {
+        next.responseFailed(call, ioe);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        next.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        next.callFailed(call, ioe);
+    }
+
+    @Override
+    public void canceled(Call call) {
+        next.canceled(call);
+    }
+
+    @Override
+    public void satisfactionFailure(Call call, Response response) {
+        next.satisfactionFailure(call, response);
+    }
+
+    @Override
+    public void cacheHit(Call call, Response cachedResponse) {
+        next.cacheHit(call, cachedResponse);
+    }
+
+    @Override
+    public void cacheMiss(Call call) {
+        next.cacheMiss(call);
+    }
+
+    @Override
+    public void cacheConditionalHit(Call call, Response cachedResponse) {
+        next.cacheConditionalHit(call, cachedResponse);
+    }
+}
@@ -0,0 +1,115 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable list query: a {@link Filter} plus {@code sort}, {@code fields} and {@code expand}, e.g.
+ * {@code Query.where(Filter.eq("status", "published")).sort("-created").expand("author")}.
+ *
+ * Every method returns a new instance with its strings already compiled, so queries can be built once
+ * and reused. Pass it to the {@code Query} overloads of the CRUD services or use the getters with the
+ * plain string parameters.
+ */
+public final class Query {
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_@][A-Za-z0-9_.@:(),]*");
+    private static final Query ALL = new Query(null, null, null, null);
+
+    private final Filter filter;
+    private final String sort;
+    private final String fields;
+    private final String expand;
+
+    private Query(Filter filter, String sort, String fields, String expand) {
+        this.filter = filter;
+        this.sort = sort;
+        this.fields = fields;
+        this.expand = expand;
+    }
+
+    /** A query without filter, sort, fields or expand. */
+    public static Query all() {
+        return ALL;
+    }
+
+    public static Query where(Filter filter) {
+        return ALL.filter(filter);
+    }
+
+    /** Replaces the filter; {@code null} removes it. */
+    public Query filter(Filter filter) {
+        return new Query(filter, sort, fields, expand);
+    }
+
+    /** Appends sort keys, e.g. {@code "-created"}, {@code "title"} or {@code "@random"}. */
+    public Query sort(String... keys) {
+        return new Query(filter, append(sort, keys, true), fields, expand);
+    }
+
+    /** Appends fields to return, e.g. {@code "id"}, {@code "expand.author.name"} or {@code "*"}. */
+    public Query fields(String... names) {
+        return new Query(filter, sort, append(fields, names, false), expand);
+    }
+
+    /** Appends relations to expand, e.g. {@code "author"} or {@code "comments_via_post.user"}. */
+    public Query expand(String... relations) {
+        return new Query(filter, sort, fields, append(expand, relations, false));
+    }
+
+    private static String append(String current, String[] names, boolean sort) {
+        if (names == null || names.length == 0) return current;
+        StringBuilder out = new StringBuilder(current == null ? "" : current);
+        for (String name : names) {
+            String bare = sort && name != null && (name.startsWith("-") || name.startsWith("+")) ? name.substring(1) : name;
+            if (bare == null || !("*".equals(bare) || NAME.matcher(bare).matches())) {
+                throw new IllegalArgumentException("Invalid name: " + name);
+            }
+            if (out.length() > 0) out.append(',');
+            out.append(name);
+        }
+        return out.toString();
+    }
+
+    public Filter getFilterExpression() {
+        return filter;
+    }
+
+    /** The compiled filter string, or {@code null}. */
+    public String getFilter() {
+        return filter == null ? null : filter.toString();
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getFields() {
+        return fields;
+    }
+
+    public String getExpand() {
+        return expand;
+    }
+
+    /** Evaluates the filter locally; always true without a filter. See {@link Filter#test(JsonNode)}. */
+    public boolean test(JsonNode record) {
+        return filter == null || filter.test(record);
+    }
+
+    /** The set parts as request query parameters ({@code filter}, {@code sort}, {@code fields}, {@code expand}). */
+    public Map<String, Object> toQueryParams() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (filter != null) params.put("filter", filter.toString());
+        if (sort != null) params.put("sort", sort);
+        if (fields != null) params.put("fields", fields);
+        if (expand != null) params.put("expand", expand);
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return toQueryParams().toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bosbase.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the smallest PATCH body that turns one record into another.
+ *
+ * Only top-level keys whose value changed are included; system keys ({@code id}, {@code created},
+ * {@code updated}, {@code collectionId}, {@code collectionName}, {@code expand}) and keys missing from
+ * the modified record are left out. Numbers compare by value, so {@code 1} and {@code 1.0} are equal.
+ */
+public final class RecordDiff {
+    private static final Set<String> SYSTEM_KEYS = Set.of("id", "created", "updated", "collectionId", "collectionName", "expand");
+
+    private static final Comparator<JsonNode> NUMERIC = (a, b) -> {
+        if (a.equals(b)) return 0;
+        if (a.isNumber() && b.isNumber()) return a.decimalValue().compareTo(b.decimalValue());
+        return 1;
+    };
+
+    private RecordDiff() {}
+
+    public static Map<String, Object> compute(JsonNode original, JsonNode modified) {
+        return compute(original, modified, null);
+    }
+
+    /**
+     * Like {@link #compute(JsonNode, JsonNode)}, but the keys in {@code setFields} (multiple relation,
+     * file or select fields) are sent as {@code field-}/{@code field+} modifiers when the change only
+     * removes items and appends new ones at the end. Any other change sends the whole array.
+     *
+     * Don't list json fields here: the server ignores modifiers on them.
+     */
+    public static Map<String, Object> compute(JsonNode original, JsonNode modified, Collection<String> setFields) {
+        Map<String, Object> patch = new LinkedHashMap<>();
+        if (modified == null || !modified.isObject()) return patch;
+        Iterator<Map.Entry<String, JsonNode>> it = modified.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            String key = entry.getKey();
+            if (SYSTEM_KEYS.contains(key)) continue;
+            JsonNode after = entry.getValue();
+            JsonNode before = original == null ? null : original.get(key);
+            if (before != null && before.equals(NUMERIC, after)) continue;
+            if (before != null && setFields != null && setFields.contains(key) && appendModifiers(patch, key, before, after)) {
+                continue;
+            }
+            patch.put(key, after);
+        }
+        return patch;
+    }
+
+    private static boolean appendModifiers(Map<String, Object> patch, String key, JsonNode before, JsonNode after) {
+        Set<String> old = textItems(before);
+        Set<String> now = textItems(after);
+        if (old == null || now == null || now.isEmpty()) return false;
+
+        // The kept items must keep their order and come first, otherwise "field+" would reorder them.
+        Set<String> removed = new LinkedHashSet<>(old);
+        removed.removeAll(now);
+        Set<String> added = new LinkedHashSet<>();
+        Iterator<String> kept = old.iterator();
+        for (String item : now) {
+            if (old.contains(item)) {
+                if (!added.isEmpty()) return false;
+                String next = kept.next();
+                while (removed.contains(next)) next = kept.next();
+                if (!next.equals(item)) return false;
+            } else {
+                added.add(item);
+            }
+        }
+
+        if (!removed.isEmpty()) patch.put(key + "-", removed);
+        if (!added.isEmpty()) patch.put(key + "+", added);
+        return true;
+    }
+
+    /** The items of an array of distinct strings, or {@code null} for anything else. */
+    private static Set<String> textItems(JsonNode node) {
+        if (!(node instanceof ArrayNode)) return null;
+        Set<String> items = new LinkedHashSet<>();
+        for (JsonNode item : node) {
+            if (!item.isTextual() || !items.add(item.textValue())) return null;
+        }
+        return items;
+    }
+}
@@ -0,0 +1,137 @@
+package com.bosbase.sdk;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link RequestListener} keeping latency histograms and counters per
+ * {@code "METHOD route"}, e.g. {@code "GET /api/collections/{c}/records/{id}"}.
+ *
+ * Latencies go into log-linear buckets (8 per power of two, so percentiles are within about 6%)
+ * from 1 microsecond to well beyond an hour; recording is lock-free.
+ */
+public class RequestHistogram implements RequestListener {
+    public static class RouteStats {
+        private static final int SUB_BUCKETS = 8;
+        private static final int BUCKETS = 40 * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder retryCount = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        void record(RequestMetrics metrics) {
+            long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(metrics.totalNanos));
+            buckets.incrementAndGet(bucketOf(micros));
+            count.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+            if (metrics.isError()) errorCount.increment();
+            if (metrics.retries > 0) retryCount.add(metrics.retries);
+            if (metrics.requestBytes > 0) requestBytes.add(metrics.requestBytes);
+            if (metrics.responseBytes > 0) responseBytes.add(metrics.responseBytes);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getErrorCount() {
+            return errorCount.sum();
+        }
+
+        public long getRetryCount() {
+            return retryCount.sum();
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalMicros.sum() / 1000.0 / n;
+        }
+
+        public double getMaxMillis() {
+            return maxMicros.get() / 1000.0;
+        }
+
+        /**
+         * Latency at the given percentile (0..1) in milliseconds, or 0 without samples.
+         */
+        public double getPercentileMillis(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(Math.min(1, Math.max(0, percentile)) * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(bucketMidpoint(i), maxMicros.get()) / 1000.0;
+                }
+            }
+            return getMaxMillis();
+        }
+
+        private static int bucketOf(long micros) {
+            if (micros < SUB_BUCKETS) return (int) micros;
+            int msb = 63 - Long.numberOfLeadingZeros(micros);
+            int exponent = msb - 2;
+            int sub = (int) ((micros >>> (msb - 3)) & (SUB_BUCKETS - 1));
+            return Math.min(BUCKETS - 1, exponent * SUB_BUCKETS + sub);
+        }
+
+        private static double bucketMidpoint(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int exponent = bucket / SUB_BUCKETS;
+            int sub = bucket % SUB_BUCKETS;
+            long lower = (long) (SUB_BUCKETS + sub) << (exponent - 1);
+            long width = 1L << (exponent - 1);
+            return lower + width / 2.0;
+        }
+    }
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public void onRequestEnd(RequestMetrics metrics) {
+        String key = metrics.method + " " + metrics.route;
+        RouteStats stats = routes.get(key);
+        if (stats == null) {
+            stats = routes.computeIfAbsent(key, __ -> new RouteStats());
+        }
+        stats.record(metrics);
+    }
+
+    public RouteStats getStats(String method, String route) {
+        return routes.get(method + " " + route);
+    }
+
+    /** Live view keyed by {@code "METHOD route"}. */
+    public Map<String, RouteStats> getRoutes() {
+        return Collections.unmodifiableMap(routes);
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package com.bosbase.sdk;
+
+/**
+ * Receives one {@link RequestMetrics} per finished request (see
+ * {@link BosBase#addRequestListener(RequestListener)}).
+ *
+ * Called on the thread that completed the request, so implementations should be fast and
+ * thread-safe; exceptions they throw are ignored.
+ */
+@FunctionalInterface
+public interface RequestListener {
+    void onRequestEnd(RequestMetrics metrics);
+}
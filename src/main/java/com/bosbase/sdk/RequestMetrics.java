@@ -0,0 +1,117 @@
+package com.bosbase.sdk;
+
+import java.util.Set;
+
+/**
+ * What happened during one request sent through {@link BosBase}.
+ *
+ * Durations are in nanoseconds; the connection and transfer phases describe the last attempt and are
+ * -1 when that phase did not happen (for example DNS and connect on a pooled connection). Byte counts
+ * are body sizes. For {@code sendStreaming} the response body is read after the request completed, so
+ * {@code bodyNanos} and {@code responseBytes} are not known.
+ */
+public class RequestMetrics {
+    private static final Set<String> LITERAL_SEGMENTS = Set.of(
+        "api", "backups", "upload", "restore", "batch", "cache", "entries", "collections", "crons", "files", "token",
+        "graphql", "health", "langchaingo", "completions", "rag", "documents", "query", "search", "llm-documents", "logs",
+        "stats", "plugins", "pubsub", "realtime", "redis", "keys", "script-permissions", "scripts", "command", "execute",
+        "settings", "apple", "generate-client-secret", "test", "email", "s3", "sql", "tables", "import", "vectors",
+        "records", "count", "impersonate", "bind-token", "unbind-token", "meta", "scaffolds", "schema", "schemas", "truncate"
+    );
+
+    public final String method;
+    /** Path with ids replaced by placeholders, e.g. {@code /api/collections/{c}/records/{id}}. */
+    public final String route;
+    public final String url;
+    /** HTTP status of the final response, or {@code null} when none was received. */
+    public final Integer status;
+    public final Throwable error;
+    public final int retries;
+    public final boolean hedged;
+    public final long totalNanos;
+    public final long dnsNanos;
+    public final long connectNanos;
+    public final long tlsNanos;
+    /** From the start of the last attempt to the first response byte. */
+    public final long ttfbNanos;
+    public final long bodyNanos;
+    public final long requestBytes;
+    public final long responseBytes;
+
+    public RequestMetrics(
+        String method,
+        String route,
+        String url,
+        Integer status,
+        Throwable error,
+        int retries,
+        boolean hedged,
+        long totalNanos,
+        long dnsNanos,
+        long connectNanos,
+        long tlsNanos,
+        long ttfbNanos,
+        long bodyNanos,
+        long requestBytes,
+        long responseBytes
+    ) {
+        this.method = method;
+        this.route = route;
+        this.url = url;
+        this.status = status;
+        this.error = error;
+        this.retries = retries;
+        this.hedged = hedged;
+        this.totalNanos = totalNanos;
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+        this.tlsNanos = tlsNanos;
+        this.ttfbNanos = ttfbNanos;
+        this.bodyNanos = bodyNanos;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+    }
+
+    /** Transport failure or an error status. */
+    public boolean isError() {
+        return error != null || status == null || status >= 400;
+    }
+
+    /**
+     * Turns a request path into a low-cardinality route: API words are kept, the segment after
+     * {@code collections} becomes {@code {c}}, file paths become {@code {c}/{id}/{filename}} and any
+     * other segment becomes {@code {id}}.
+     */
+    public static String routeTemplate(String path) {
+        if (path == null || path.isEmpty()) return "/";
+        int end = path.indexOf('?');
+        String[] segments = (end >= 0 ? path.substring(0, end) : path).split("/");
+        StringBuilder route = new StringBuilder(path.length());
+        String previous = "";
+        int index = 0;
+        boolean files = false;
+        for (String segment : segments) {
+            if (segment.isEmpty()) continue;
+            String part;
+            if (files && !"token".equals(segment)) {
+                part = index == 2 ? "{c}" : index == 3 ? "{id}" : "{filename}";
+            } else if ("collections".equals(previous) && !(index == 2 && isCollectionsLiteral(segment))) {
+                part = "{c}";
+            } else if (LITERAL_SEGMENTS.contains(segment) || segment.startsWith("auth-")
+                || segment.startsWith("request-") || segment.startsWith("confirm-")) {
+                part = segment;
+            } else {
+                part = "{id}";
+            }
+            if (index == 1 && "files".equals(segment)) files = true;
+            route.append('/').append(part);
+            previous = segment;
+            index++;
+        }
+        return route.length() == 0 ? "/" : route.toString();
+    }
+
+    private static boolean isCollectionsLiteral(String segment) {
+        return "meta".equals(segment) || "import".equals(segment) || "schemas".equals(segment) || "sql".equals(segment);
+    }
+}
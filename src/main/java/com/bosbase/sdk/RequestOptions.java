@@ -16,6 +16,8 @@ public class RequestOptions {
     public Long timeoutSeconds;
     public String requestKey;
     public boolean autoCancel = true;
+    /** Base URL of the node to send to when the client has several; {@code null} lets the load balancer pick. */
+    public String node;
 
     public RequestOptions() {}
 
@@ -29,6 +31,7 @@ public class RequestOptions {
             this.timeoutSeconds = other.timeoutSeconds;
             this.requestKey = other.requestKey;
             this.autoCancel = other.autoCancel;
+            this.node = other.node;
         }
     }
 }
@@ -1,9 +1,11 @@
 package com.bosbase.sdk;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
 
-public class ResultList<T extends JsonNode> {
+public class ResultList<T> {
     public final int page;
     public final int perPage;
     public final int totalItems;
@@ -17,4 +19,23 @@ public class ResultList<T extends JsonNode> {
         this.items = items;
         this.raw = raw;
     }
+
+    /**
+     * Used when a list response is bound directly into typed items, in which case no raw tree exists.
+     */
+    @JsonCreator
+    ResultList(
+        @JsonProperty("page") Integer page,
+        @JsonProperty("perPage") Integer perPage,
+        @JsonProperty("totalItems") Integer totalItems,
+        @JsonProperty("items") List<T> items
+    ) {
+        this(
+            page != null ? page : 1,
+            perPage != null ? perPage : 0,
+            totalItems != null ? totalItems : 0,
+            items != null ? items : List.of(),
+            null
+        );
+    }
 }
@@ -0,0 +1,24 @@
+package com.bosbase.sdk;
+
+import java.io.IOException;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Decides whether a failed attempt is retried and after how long.
+ *
+ * Called after every attempt that ended in a transport error ({@code error} set) or an HTTP response
+ * ({@code response} set, body not yet read). Return the delay in milliseconds before the next attempt,
+ * or a negative value to stop. Retries are scheduled on a timer, so blocking and async sends behave
+ * the same. Requests with one-shot bodies are never retried.
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+    RetryPolicy NONE = (request, retry, elapsedMillis, response, error) -> -1;
+
+    /**
+     * @param retry the number of the retry being considered (1 for the first retry)
+     * @param elapsedMillis time since the first attempt started
+     */
+    long retryDelayMillis(Request request, int retry, long elapsedMillis, Response response, IOException error);
+}
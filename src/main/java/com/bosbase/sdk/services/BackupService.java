@@ -5,10 +5,11 @@ import com.bosbase.sdk.FileAttachment;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map;
 
 import static com.bosbase.sdk.PathUtils.encodePath;
 
@@ -44,6 +45,13 @@ public class BackupService extends BaseService {
         return true;
     }
 
+    /**
+     * Uploads a backup archive straight from disk without loading it into memory.
+     */
+    public boolean upload(Path archive, Map<String, String> headers) throws IOException {
+        return upload(null, Map.of("file", List.of(FileAttachment.fromPath(archive, "application/zip"))), headers);
+    }
+
     public boolean delete(String key, Map<String, String> headers) {
         client.send("/api/backups/" + encodePath(key), "DELETE", headers, null, null, null, null, null, true);
         return true;
@@ -57,4 +65,18 @@ public class BackupService extends BaseService {
     public String getDownloadURL(String token, String key) {
         return client.buildUrl("/api/backups/" + encodePath(key), Map.of("token", token)).toString();
     }
+
+    public long download(String key, Path target) {
+        return download(key, target, 1, null);
+    }
+
+    /**
+     * Streams a backup archive to {@code target} using a fresh file token, resuming an interrupted
+     * transfer from {@code <target>.part}. With {@code segments > 1} the archive is fetched as
+     * parallel byte ranges. Returns the number of bytes in the downloaded file.
+     */
+    public long download(String key, Path target, int segments, Map<String, String> headers) {
+        String token = client.files.getToken(headers);
+        return FileDownloader.download(client, "/api/backups/" + encodePath(key), Map.of("token", token), target, segments, headers);
+    }
 }
@@ -6,13 +6,21 @@ import com.bosbase.sdk.FileAttachment;
 import com.bosbase.sdk.ResultList;
 import com.bosbase.sdk.JsonUtils;
 import com.bosbase.sdk.PathUtils;
+import com.bosbase.sdk.Query;
+import com.bosbase.sdk.RecordDiff;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public abstract class BaseCrudService extends BaseService {
     protected BaseCrudService(BosBase client) {
@@ -32,27 +40,101 @@ public abstract class BaseCrudService extends BaseService {
         Map<String, Object> query,
         Map<String, String> headers
     ) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("page", page);
-        params.put("perPage", perPage);
-        params.put("skipTotal", skipTotal);
-        if (filter != null) params.put("filter", filter);
-        if (sort != null) params.put("sort", sort);
-        if (expand != null) params.put("expand", expand);
-        if (fields != null) params.put("fields", fields);
-        if (query != null) params.putAll(query);
-
+        Map<String, Object> params = listParams(page, perPage, skipTotal, filter, sort, expand, fields, query);
         JsonNode data = client.send(getBaseCrudPath(), "GET", headers, params, null, null, null, null, true);
-        if (data == null || data.isNull()) {
-            return new ResultList<>(page, perPage, 0, List.of(), null);
-        }
-        return asResultList(data);
+        return toResultList(data, page, perPage);
+    }
+
+    public CompletableFuture<ResultList<ObjectNode>> getListAsync(
+        int page,
+        int perPage,
+        boolean skipTotal,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        Map<String, Object> params = listParams(page, perPage, skipTotal, filter, sort, expand, fields, query);
+        return client.sendAsync(getBaseCrudPath(), "GET", headers, params, null, null, null, null, true)
+            .thenApply(data -> toResultList(data, page, perPage));
     }
 
     public ResultList<ObjectNode> getList() {
         return getList(1, 30, false, null, null, null, null, null, null);
     }
 
+    /**
+     * Typed variant of {@link #getList(int, int, boolean, String, String, String, String, Map, Map)}:
+     * the items are bound straight from the response stream into {@code itemType}.
+     */
+    public <T> ResultList<T> getList(
+        int page,
+        int perPage,
+        boolean skipTotal,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        Class<T> itemType
+    ) {
+        Map<String, Object> params = listParams(page, perPage, skipTotal, filter, sort, expand, fields, query);
+        ResultList<T> result = client.sendTyped(getBaseCrudPath(), "GET", headers, params, null, null, null, null, true, resultListType(itemType));
+        return result != null ? result : new ResultList<>(page, perPage, 0, List.of(), null);
+    }
+
+    public <T> ResultList<T> getList(Class<T> itemType) {
+        return getList(1, 30, false, null, null, null, null, null, null, itemType);
+    }
+
+    /**
+     * Lists records matching a prebuilt {@link Query} (filter, sort, fields and expand).
+     */
+    public ResultList<ObjectNode> getList(int page, int perPage, Query query) {
+        Query q = query != null ? query : Query.all();
+        return getList(page, perPage, false, q.getFilter(), q.getSort(), q.getExpand(), q.getFields(), null, null);
+    }
+
+    public <T> ResultList<T> getList(int page, int perPage, Query query, Class<T> itemType) {
+        Query q = query != null ? query : Query.all();
+        return getList(page, perPage, false, q.getFilter(), q.getSort(), q.getExpand(), q.getFields(), null, null, itemType);
+    }
+
+    public CompletableFuture<ResultList<ObjectNode>> getListAsync(int page, int perPage, Query query) {
+        Query q = query != null ? query : Query.all();
+        return getListAsync(page, perPage, false, q.getFilter(), q.getSort(), q.getExpand(), q.getFields(), null, null);
+    }
+
+    public List<ObjectNode> getFullList(int batch, Query query) {
+        Query q = query != null ? query : Query.all();
+        return getFullList(batch, q.getFilter(), q.getSort(), q.getExpand(), q.getFields(), null, null);
+    }
+
+    public ObjectNode getFirstListItem(Query query) {
+        Query q = query != null ? query : Query.all();
+        return getFirstListItem(q.getFilter(), q.getExpand(), q.getFields(), null, null);
+    }
+
+    public <T> CompletableFuture<ResultList<T>> getListAsync(
+        int page,
+        int perPage,
+        boolean skipTotal,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        Class<T> itemType
+    ) {
+        Map<String, Object> params = listParams(page, perPage, skipTotal, filter, sort, expand, fields, query);
+        return client.<ResultList<T>>sendTypedAsync(getBaseCrudPath(), "GET", headers, params, null, null, null, null, true, resultListType(itemType))
+            .thenApply(result -> result != null ? result : new ResultList<>(page, perPage, 0, List.of(), null));
+    }
+
     public List<ObjectNode> getFullList(
         int batch,
         String filter,
@@ -64,15 +146,112 @@ public abstract class BaseCrudService extends BaseService {
     ) {
         List<ObjectNode> items = new ArrayList<>();
         int page = 1;
+        int totalItems = 0;
         while (true) {
-            ResultList<ObjectNode> result = getList(page, batch, false, filter, sort, expand, fields, query, headers);
+            ResultList<ObjectNode> result = getList(page, batch, page > 1, filter, sort, expand, fields, query, headers);
             items.addAll(result.items);
-            if (items.size() >= result.totalItems || result.items.isEmpty()) break;
+            if (page == 1) totalItems = result.totalItems;
+            if (items.size() >= totalItems || result.items.isEmpty()) break;
             page += 1;
         }
         return items;
     }
 
+    /**
+     * Parallel variant of {@link #getFullList(int, String, String, String, String, Map, Map)}.
+     *
+     * The first page is fetched to learn {@code totalItems}; the remaining pages are then requested
+     * concurrently (at most {@code concurrency} in flight, with {@code skipTotal} enabled) and
+     * reassembled in page order. Use a deterministic {@code sort} so pages don't shift while fetching.
+     */
+    public List<ObjectNode> getFullList(
+        int batch,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        int concurrency
+    ) {
+        return await(getFullListAsync(batch, filter, sort, expand, fields, query, headers, concurrency));
+    }
+
+    public <T> List<T> getFullList(
+        int batch,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        Class<T> itemType
+    ) {
+        List<T> items = new ArrayList<>();
+        int page = 1;
+        int totalItems = 0;
+        while (true) {
+            ResultList<T> result = getList(page, batch, page > 1, filter, sort, expand, fields, query, headers, itemType);
+            items.addAll(result.items);
+            if (page == 1) totalItems = result.totalItems;
+            if (items.size() >= totalItems || result.items.isEmpty()) break;
+            page += 1;
+        }
+        return items;
+    }
+
+    public <T> List<T> getFullList(
+        int batch,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        Class<T> itemType,
+        int concurrency
+    ) {
+        Map<String, Object> pageQuery = withoutAutoCancel(query);
+        return await(fetchAllPages(
+            batch,
+            concurrency,
+            (page, skipTotal) -> getListAsync(page, batch, skipTotal, filter, sort, expand, fields, pageQuery, headers, itemType)
+        ));
+    }
+
+    /**
+     * Async counterpart of {@link #getFullList}; each page request is chained on the completion of the previous one.
+     */
+    public CompletableFuture<List<ObjectNode>> getFullListAsync(
+        int batch,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        return collectPagesAsync(new ArrayList<>(), 1, 0, batch, filter, sort, expand, fields, query, headers);
+    }
+
+    public CompletableFuture<List<ObjectNode>> getFullListAsync(
+        int batch,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        int concurrency
+    ) {
+        Map<String, Object> pageQuery = withoutAutoCancel(query);
+        return fetchAllPages(
+            batch,
+            concurrency,
+            (page, skipTotal) -> getListAsync(page, batch, skipTotal, filter, sort, expand, fields, pageQuery, headers)
+        );
+    }
+
     public ObjectNode getOne(
         String id,
         String expand,
@@ -80,13 +259,45 @@ public abstract class BaseCrudService extends BaseService {
         Map<String, Object> query,
         Map<String, String> headers
     ) {
-        Map<String, Object> params = new HashMap<>();
-        if (expand != null) params.put("expand", expand);
-        if (fields != null) params.put("fields", fields);
-        if (query != null) params.putAll(query);
+        JsonNode data = client.send(getBaseCrudPath() + "/" + PathUtils.encodePath(id), "GET", headers, viewParams(expand, fields, query), null, null, null, null, true);
+        return toObject(data);
+    }
 
-        JsonNode data = client.send(getBaseCrudPath() + "/" + PathUtils.encodePath(id), "GET", headers, params, null, null, null, null, true);
-        return data != null && data.isObject() ? (ObjectNode) data : emptyObject();
+    public CompletableFuture<ObjectNode> getOneAsync(
+        String id,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        return client.sendAsync(getBaseCrudPath() + "/" + PathUtils.encodePath(id), "GET", headers, viewParams(expand, fields, query), null, null, null, null, true)
+            .thenApply(this::toObject);
+    }
+
+    public <T> T getOne(
+        String id,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        Class<T> type
+    ) {
+        return client.sendTyped(getBaseCrudPath() + "/" + PathUtils.encodePath(id), "GET", headers, viewParams(expand, fields, query), null, null, null, null, true, typeOf(type));
+    }
+
+    public <T> T getOne(String id, Class<T> type) {
+        return getOne(id, null, null, null, null, type);
+    }
+
+    public <T> CompletableFuture<T> getOneAsync(
+        String id,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        Class<T> type
+    ) {
+        return client.sendTypedAsync(getBaseCrudPath() + "/" + PathUtils.encodePath(id), "GET", headers, viewParams(expand, fields, query), null, null, null, null, true, typeOf(type));
     }
 
     public ObjectNode getFirstListItem(
@@ -97,15 +308,30 @@ public abstract class BaseCrudService extends BaseService {
         Map<String, String> headers
     ) {
         ResultList<ObjectNode> result = getList(1, 1, true, filter, null, expand, fields, query, headers);
-        ObjectNode first = result.items.isEmpty() ? null : result.items.get(0);
-        if (first != null) return first;
-        throw new ClientResponseError(
-            client.buildUrl(getBaseCrudPath()).toString(),
-            404,
-            Map.of("code", 404, "message", "The requested resource wasn't found.", "data", Map.of()),
-            false,
-            null
-        );
+        return firstOrNotFound(result);
+    }
+
+    public <T> T getFirstListItem(
+        String filter,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers,
+        Class<T> type
+    ) {
+        ResultList<T> result = getList(1, 1, true, filter, null, expand, fields, query, headers, type);
+        return firstOrNotFound(result);
+    }
+
+    public CompletableFuture<ObjectNode> getFirstListItemAsync(
+        String filter,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        return getListAsync(1, 1, true, filter, null, expand, fields, query, headers)
+            .thenApply(this::firstOrNotFound);
     }
 
     public ObjectNode create(
@@ -115,7 +341,17 @@ public abstract class BaseCrudService extends BaseService {
         Map<String, String> headers
     ) {
         JsonNode data = client.send(getBaseCrudPath(), "POST", headers, query, body, files, null, null, true);
-        return data != null && data.isObject() ? (ObjectNode) data : emptyObject();
+        return toObject(data);
+    }
+
+    public CompletableFuture<ObjectNode> createAsync(
+        Map<String, Object> body,
+        Map<String, List<FileAttachment>> files,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        return client.sendAsync(getBaseCrudPath(), "POST", headers, query, body, files, null, null, true)
+            .thenApply(this::toObject);
     }
 
     public ObjectNode update(
@@ -126,14 +362,248 @@ public abstract class BaseCrudService extends BaseService {
         Map<String, String> headers
     ) {
         JsonNode data = client.send(getBaseCrudPath() + "/" + id, "PATCH", headers, query, body, files, null, null, true);
-        return data != null && data.isObject() ? (ObjectNode) data : emptyObject();
+        return toObject(data);
+    }
+
+    public CompletableFuture<ObjectNode> updateAsync(
+        String id,
+        Map<String, Object> body,
+        Map<String, List<FileAttachment>> files,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        return client.sendAsync(getBaseCrudPath() + "/" + id, "PATCH", headers, query, body, files, null, null, true)
+            .thenApply(this::toObject);
+    }
+
+    /** Sends only the fields that differ between the two copies. See {@link RecordDiff}. */
+    public ObjectNode update(String id, ObjectNode original, ObjectNode modified) {
+        return update(id, original, modified, null, false, null, null);
+    }
+
+    /**
+     * Sends only the fields that differ between {@code original} and {@code modified}; nothing is sent
+     * and {@code original} is returned when they are equal. {@code setFields} are sent as
+     * {@code field-}/{@code field+} modifiers where possible (see {@link RecordDiff}).
+     *
+     * With {@code checkUpdated} the current {@code updated} value is fetched first and a 409 error is
+     * thrown when it no longer matches the original. This is a pre-check, not an atomic compare-and-set,
+     * and it costs a GET round trip before every PATCH, roughly doubling the update's latency.
+     */
+    public ObjectNode update(
+        String id,
+        ObjectNode original,
+        ObjectNode modified,
+        Collection<String> setFields,
+        boolean checkUpdated,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        Map<String, Object> patch = RecordDiff.compute(original, modified, setFields);
+        if (patch.isEmpty()) return original;
+        if (checkUpdated) {
+            JsonNode current = client.send(getBaseCrudPath() + "/" + PathUtils.encodePath(id), "GET", headers, Map.of("fields", "updated"), null, null, null, null, true);
+            ensureUnmodified(id, original, current);
+        }
+        return update(id, patch, null, query, headers);
+    }
+
+    /** Async {@link #update(String, ObjectNode, ObjectNode, Collection, boolean, Map, Map)}; {@code checkUpdated} adds the same GET. */
+    public CompletableFuture<ObjectNode> updateAsync(
+        String id,
+        ObjectNode original,
+        ObjectNode modified,
+        Collection<String> setFields,
+        boolean checkUpdated,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        Map<String, Object> patch = RecordDiff.compute(original, modified, setFields);
+        if (patch.isEmpty()) return CompletableFuture.completedFuture(original);
+        if (!checkUpdated) return updateAsync(id, patch, null, query, headers);
+        return client.sendAsync(getBaseCrudPath() + "/" + PathUtils.encodePath(id), "GET", headers, Map.of("fields", "updated"), null, null, null, null, true)
+            .thenCompose(current -> {
+                ensureUnmodified(id, original, current);
+                return updateAsync(id, patch, null, query, headers);
+            });
     }
 
     public void delete(String id, Map<String, Object> query, Map<String, String> headers) {
         client.send(getBaseCrudPath() + "/" + id, "DELETE", headers, query, null, null, null, null, true);
     }
 
-    private ResultList<ObjectNode> asResultList(JsonNode node) {
+    public CompletableFuture<Void> deleteAsync(String id, Map<String, Object> query, Map<String, String> headers) {
+        return client.sendAsync(getBaseCrudPath() + "/" + id, "DELETE", headers, query, null, null, null, null, true)
+            .thenApply(data -> null);
+    }
+
+    private CompletableFuture<List<ObjectNode>> collectPagesAsync(
+        List<ObjectNode> items,
+        int page,
+        int totalItems,
+        int batch,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        return getListAsync(page, batch, page > 1, filter, sort, expand, fields, query, headers).thenCompose(result -> {
+            items.addAll(result.items);
+            int total = page == 1 ? result.totalItems : totalItems;
+            if (items.size() >= total || result.items.isEmpty()) {
+                return CompletableFuture.completedFuture(items);
+            }
+            return collectPagesAsync(items, page + 1, total, batch, filter, sort, expand, fields, query, headers);
+        });
+    }
+
+    private <T> CompletableFuture<List<T>> fetchAllPages(int batch, int concurrency, PageFetcher<T> fetcher) {
+        return fetcher.fetch(1, false).thenCompose(first -> {
+            int perPage = first.perPage > 0 ? first.perPage : batch;
+            int totalPages = first.items.isEmpty() || perPage <= 0
+                ? 1
+                : (int) ((first.totalItems + (long) perPage - 1) / perPage);
+            if (totalPages <= 1) {
+                return CompletableFuture.completedFuture(new ArrayList<>(first.items));
+            }
+
+            AtomicReferenceArray<List<T>> pages = new AtomicReferenceArray<>(totalPages);
+            pages.set(0, first.items);
+            AtomicInteger nextPage = new AtomicInteger(2);
+            AtomicInteger remaining = new AtomicInteger(totalPages - 1);
+            CompletableFuture<List<T>> done = new CompletableFuture<>();
+
+            Runnable[] launchNext = new Runnable[1];
+            launchNext[0] = () -> {
+                int page = nextPage.getAndIncrement();
+                if (page > totalPages || done.isDone()) return;
+                fetcher.fetch(page, true).whenComplete((result, err) -> {
+                    if (err != null) {
+                        done.completeExceptionally(err);
+                        return;
+                    }
+                    pages.set(page - 1, result.items);
+                    if (remaining.decrementAndGet() == 0) {
+                        List<T> items = new ArrayList<>(first.totalItems);
+                        for (int i = 0; i < totalPages; i++) {
+                            items.addAll(pages.get(i));
+                        }
+                        done.complete(items);
+                    } else {
+                        launchNext[0].run();
+                    }
+                });
+            };
+
+            int inFlight = Math.max(1, Math.min(concurrency, totalPages - 1));
+            for (int i = 0; i < inFlight; i++) {
+                launchNext[0].run();
+            }
+            return done;
+        });
+    }
+
+    protected static Map<String, Object> withoutAutoCancel(Map<String, Object> query) {
+        // concurrent page requests share the same path, so they must not auto-cancel each other
+        Map<String, Object> pageQuery = new HashMap<>();
+        if (query != null) pageQuery.putAll(query);
+        pageQuery.put("$autoCancel", false);
+        return pageQuery;
+    }
+
+    protected static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException err) {
+            Throwable cause = err.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new ClientResponseError(cause);
+        }
+    }
+
+    Map<String, Object> listParams(
+        int page,
+        int perPage,
+        boolean skipTotal,
+        String filter,
+        String sort,
+        String expand,
+        String fields,
+        Map<String, Object> query
+    ) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("page", page);
+        params.put("perPage", perPage);
+        params.put("skipTotal", skipTotal);
+        if (filter != null) params.put("filter", filter);
+        if (sort != null) params.put("sort", sort);
+        if (expand != null) params.put("expand", expand);
+        if (fields != null) params.put("fields", fields);
+        if (query != null) params.putAll(query);
+        return params;
+    }
+
+    private Map<String, Object> viewParams(String expand, String fields, Map<String, Object> query) {
+        Map<String, Object> params = new HashMap<>();
+        if (expand != null) params.put("expand", expand);
+        if (fields != null) params.put("fields", fields);
+        if (query != null) params.putAll(query);
+        return params;
+    }
+
+    private ResultList<ObjectNode> toResultList(JsonNode data, int page, int perPage) {
+        if (data == null || data.isNull()) {
+            return new ResultList<>(page, perPage, 0, List.of(), null);
+        }
+        return asResultList(data);
+    }
+
+    private <T> T firstOrNotFound(ResultList<T> result) {
+        T first = result.items.isEmpty() ? null : result.items.get(0);
+        if (first != null) return first;
+        throw new ClientResponseError(
+            client.buildUrl(getBaseCrudPath()).toString(),
+            404,
+            Map.of("code", 404, "message", "The requested resource wasn't found.", "data", Map.of()),
+            false,
+            null
+        );
+    }
+
+    private void ensureUnmodified(String id, ObjectNode original, JsonNode current) {
+        String expected = original == null ? null : original.path("updated").asText(null);
+        if (expected == null) throw new IllegalArgumentException("The original record has no updated value");
+        String actual = current == null ? null : current.path("updated").asText(null);
+        if (expected.equals(actual)) return;
+        throw new ClientResponseError(
+            client.buildUrl(getBaseCrudPath() + "/" + PathUtils.encodePath(id)).toString(),
+            409,
+            Map.of("code", 409, "message", "The record was modified since it was read.", "data", Map.of()),
+            false,
+            null
+        );
+    }
+
+    @FunctionalInterface
+    private interface PageFetcher<T> {
+        CompletableFuture<ResultList<T>> fetch(int page, boolean skipTotal);
+    }
+
+    private static JavaType typeOf(Class<?> type) {
+        return JsonUtils.MAPPER.getTypeFactory().constructType(type);
+    }
+
+    private static JavaType resultListType(Class<?> itemType) {
+        return JsonUtils.MAPPER.getTypeFactory().constructParametricType(ResultList.class, itemType);
+    }
+
+    private ObjectNode toObject(JsonNode data) {
+        return data != null && data.isObject() ? (ObjectNode) data : emptyObject();
+    }
+
+    ResultList<ObjectNode> asResultList(JsonNode node) {
         if (node == null || !node.isObject()) {
             return new ResultList<>(1, 0, 0, List.of(), node);
         }
@@ -0,0 +1,253 @@
+package com.bosbase.sdk.services;
+
+import com.bosbase.sdk.BosBase;
+import com.bosbase.sdk.ClientResponseError;
+import com.bosbase.sdk.JsonUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.bosbase.sdk.PathUtils.encodePath;
+
+/**
+ * Thread-safe, auto-flushing writer on top of {@code /api/batch}.
+ *
+ * Operations are buffered and sent as one batch request once {@code maxRequests} operations or
+ * {@code maxBytes} of JSON bodies are queued, or {@code lingerMillis} after the first buffered
+ * operation. Up to {@code maxInFlight} batches are sent concurrently; when that limit is reached the
+ * flushing thread waits, which applies back-pressure to producers. Each operation gets its own future
+ * completed with the record body returned by the server (or a {@link ClientResponseError}).
+ *
+ * Ordering is only guaranteed within a single batch. Keep {@code maxRequests} at or below the server's
+ * batch {@code maxRequests} setting.
+ */
+public class BatchWriter implements AutoCloseable {
+    private static final JsonNodeFactory NODES = JsonUtils.MAPPER.getNodeFactory();
+
+    private final BosBase client;
+    private final BatchService urls;
+    private final int maxRequests;
+    private final long maxBytes;
+    private final long lingerMillis;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "bosbase-batch-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private List<PendingOperation> buffer = new ArrayList<>();
+    private long bufferBytes;
+    private ScheduledFuture<?> lingerTask;
+    private boolean closed;
+
+    public BatchWriter(BosBase client, int maxRequests, long maxBytes, long lingerMillis, int maxInFlight) {
+        if (maxRequests <= 0) throw new IllegalArgumentException("maxRequests must be positive");
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive");
+        this.client = client;
+        this.urls = new BatchService(client);
+        this.maxRequests = maxRequests;
+        this.maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+        this.lingerMillis = lingerMillis;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public CompletableFuture<JsonNode> create(String collectionIdOrName, Map<String, Object> body) {
+        return enqueue("POST", collectionUrl(collectionIdOrName), body);
+    }
+
+    public CompletableFuture<JsonNode> upsert(String collectionIdOrName, Map<String, Object> body) {
+        return enqueue("PUT", collectionUrl(collectionIdOrName), body);
+    }
+
+    public CompletableFuture<JsonNode> update(String collectionIdOrName, String recordId, Map<String, Object> body) {
+        return enqueue("PATCH", collectionUrl(collectionIdOrName) + "/" + encodePath(recordId), body);
+    }
+
+    public CompletableFuture<JsonNode> delete(String collectionIdOrName, String recordId) {
+        return enqueue("DELETE", collectionUrl(collectionIdOrName) + "/" + encodePath(recordId), null);
+    }
+
+    /**
+     * Sends whatever is currently buffered without waiting for the batch to fill up.
+     */
+    public void flush() {
+        List<PendingOperation> ready;
+        synchronized (lock) {
+            ready = drain();
+        }
+        if (ready != null) {
+            send(ready);
+        }
+    }
+
+    /**
+     * Flushes the buffer and waits for all in-flight batches to complete.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        flush();
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+        scheduler.shutdown();
+    }
+
+    private CompletableFuture<JsonNode> enqueue(String method, String path, Map<String, Object> body) {
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        String json = null;
+        if (body != null) {
+            try {
+                json = JsonUtils.MAPPER.writeValueAsString(body);
+            } catch (JsonProcessingException e) {
+                result.completeExceptionally(new ClientResponseError(e));
+                return result;
+            }
+        }
+        PendingOperation op = new PendingOperation(method, urls.buildRelative(path, null), json, result);
+
+        List<PendingOperation> ready = null;
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("BatchWriter is closed");
+            buffer.add(op);
+            bufferBytes += op.size();
+            if (buffer.size() >= maxRequests || bufferBytes >= maxBytes) {
+                ready = drain();
+            } else if (buffer.size() == 1 && lingerMillis > 0) {
+                lingerTask = scheduler.schedule(this::flush, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            send(ready);
+        } else if (lingerMillis <= 0) {
+            flush();
+        }
+        return result;
+    }
+
+    // must be called while holding the lock
+    private List<PendingOperation> drain() {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        if (buffer.isEmpty()) return null;
+        List<PendingOperation> ready = buffer;
+        buffer = new ArrayList<>();
+        bufferBytes = 0;
+        return ready;
+    }
+
+    private void send(List<PendingOperation> ops) {
+        ArrayNode requests = NODES.arrayNode(ops.size());
+        for (PendingOperation op : ops) {
+            ObjectNode request = requests.addObject();
+            request.put("method", op.method);
+            request.put("url", op.url);
+            request.set("body", op.json != null ? NODES.rawValueNode(new RawValue(op.json)) : NODES.objectNode());
+        }
+        ObjectNode payload = NODES.objectNode();
+        payload.set("requests", requests);
+
+        inFlight.acquireUninterruptibly();
+        client.sendAsync("/api/batch", "POST", null, null, payload, null, null, null, false).whenComplete((data, err) -> {
+            inFlight.release();
+            if (err != null) {
+                Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                ops.forEach(op -> op.result.completeExceptionally(cause));
+                return;
+            }
+            complete(ops, data);
+        });
+    }
+
+    private void complete(List<PendingOperation> ops, JsonNode data) {
+        String url = client.buildUrl("/api/batch").toString();
+        for (int i = 0; i < ops.size(); i++) {
+            PendingOperation op = ops.get(i);
+            JsonNode item = data != null && data.isArray() ? data.get(i) : null;
+            if (item == null) {
+                op.result.completeExceptionally(new ClientResponseError(
+                    url,
+                    new IllegalStateException("Missing batch response for request " + i)
+                ));
+                continue;
+            }
+            int status = item.path("status").asInt(200);
+            JsonNode body = item.has("body") ? item.get("body") : NullNode.getInstance();
+            if (status >= 400) {
+                op.result.completeExceptionally(new ClientResponseError(
+                    url,
+                    status,
+                    JsonUtils.jsonNodeToMap(body),
+                    false,
+                    null
+                ));
+            } else {
+                op.result.complete(body);
+            }
+        }
+    }
+
+    private static String collectionUrl(String collectionIdOrName) {
+        return "/api/collections/" + encodePath(collectionIdOrName) + "/records";
+    }
+
+    private static class PendingOperation {
+        final String method;
+        final String url;
+        final String json;
+        final CompletableFuture<JsonNode> result;
+        private final long size;
+
+        PendingOperation(String method, String url, String json, CompletableFuture<JsonNode> result) {
+            this.method = method;
+            this.url = url;
+            this.json = json;
+            this.result = result;
+            this.size = utf8Length(url) + (json != null ? utf8Length(json) : 0) + 32L;
+        }
+
+        /** Approximate encoded size of the operation inside the batch body, in bytes. */
+        long size() {
+            return size;
+        }
+    }
+
+    private static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
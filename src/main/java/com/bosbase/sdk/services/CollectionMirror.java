@@ -0,0 +1,391 @@
+package com.bosbase.sdk.services;
+
+import com.bosbase.sdk.BosBase;
+import com.bosbase.sdk.Filter;
+import com.bosbase.sdk.JsonUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory replica of a collection (or of the records matching a {@link Filter}), kept current with
+ * realtime events and periodic catch-up queries, so reads become local lookups.
+ *
+ * {@link #start()} subscribes to {@code collection/*}, then bulk loads the records with keyset
+ * pagination sorted by {@code updated}. Afterwards every {@code catchUpIntervalMillis} the records with
+ * {@code updated >= watermark} are fetched again (the watermark only advances from query results, with
+ * a small overlap), which closes gaps left by lost events. After a realtime reconnect the ids are also
+ * reconciled to drop records deleted while disconnected. Updates are applied only when they are not
+ * older than the mirrored version, so late query results never overwrite newer events.
+ *
+ * The collection must have the {@code updated} autodate field and the current auth must be allowed to
+ * list the records and receive their realtime events. Mirrored nodes are shared between callers and
+ * must be treated as read-only.
+ */
+public class CollectionMirror implements AutoCloseable {
+    private static final String UPDATED = "updated";
+    private static final int BATCH = 500;
+    private static final long WATERMARK_OVERLAP_MILLIS = 2_000;
+    private static final long CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final DateTimeFormatter WATERMARK_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final RecordService records;
+    private final BosBase client;
+    private final Filter filter;
+    private final boolean localFilter;
+    private final long catchUpIntervalMillis;
+    private final ConcurrentHashMap<String, ObjectNode> entries = new ConcurrentHashMap<>();
+    /** field -> normalized value -> record ids */
+    private final Map<String, ConcurrentHashMap<String, Set<String>>> indexes = new HashMap<>();
+    /** Ids deleted by realtime events; query results for them may be stale and are skipped. */
+    private final ConcurrentHashMap<String, Long> tombstones = new ConcurrentHashMap<>();
+    private final Object syncLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "bosbase-mirror");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile String watermark;
+    private volatile boolean loaded;
+    private volatile boolean closed;
+    private boolean started;
+    private Runnable unsubscribe;
+    private Runnable connectUnsubscribe;
+    private ScheduledFuture<?> catchUpTask;
+
+    private final AtomicLong eventCount = new AtomicLong();
+    private final AtomicLong catchUpCount = new AtomicLong();
+    private final AtomicLong reconcileCount = new AtomicLong();
+    private final AtomicLong syncErrors = new AtomicLong();
+
+    /**
+     * @param filter                records to mirror, or {@code null} for the whole collection
+     * @param catchUpIntervalMillis delay between catch-up queries, {@code 0} to only catch up on reconnect
+     * @param indexedFields         fields to keep secondary indexes for, see {@link #findBy(String, Object)}
+     */
+    public CollectionMirror(RecordService records, Filter filter, long catchUpIntervalMillis, String... indexedFields) {
+        if (records == null) throw new IllegalArgumentException("records must be set");
+        this.records = records;
+        this.client = records.client;
+        this.filter = filter;
+        this.localFilter = filter != null && filter.isEvaluable();
+        this.catchUpIntervalMillis = catchUpIntervalMillis;
+        if (indexedFields != null) {
+            for (String field : indexedFields) {
+                indexes.put(field, new ConcurrentHashMap<>());
+            }
+        }
+    }
+
+    /**
+     * Subscribes to realtime events, runs the initial bulk load and schedules the catch-up queries.
+     * Blocks until the initial load finished; throws the load error after closing the mirror.
+     */
+    public synchronized CollectionMirror start() {
+        if (started) return this;
+        if (closed) throw new IllegalStateException("mirror is closed");
+        started = true;
+        try {
+            CompletableFuture<Void> connected = new CompletableFuture<>();
+            connectUnsubscribe = client.realtime.addConnectListener(() -> {
+                boolean first = connected.complete(null);
+                if ((!first || loaded) && !closed) scheduler.execute(this::resync);
+            });
+            Map<String, Object> query = filter != null ? Map.of("filter", filter.toString()) : null;
+            unsubscribe = records.subscribe("*", this::onRealtimeEvent, query, null);
+            if (!client.realtime.getClientId().isEmpty()) connected.complete(null);
+            try {
+                // loading only after the subscription is active leaves no window for missed events
+                connected.get(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException ignored) {
+                // the catch-up queries cover whatever happens until the stream connects
+            }
+            catchUp();
+            loaded = true;
+            if (catchUpIntervalMillis > 0) {
+                catchUpTask = scheduler.scheduleWithFixedDelay(this::safeCatchUp, catchUpIntervalMillis, catchUpIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+            return this;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while starting the mirror", e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public ObjectNode get(String id) {
+        return id == null ? null : entries.get(id);
+    }
+
+    public boolean contains(String id) {
+        return id != null && entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Live, unmodifiable view of the mirrored records. */
+    public Collection<ObjectNode> values() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Records whose {@code field} equals {@code value} (or contains it, for multi-value fields),
+     * looked up in the secondary index of that field.
+     */
+    public List<ObjectNode> findBy(String field, Object value) {
+        ConcurrentHashMap<String, Set<String>> index = indexes.get(field);
+        if (index == null) throw new IllegalArgumentException("No index on field " + field);
+        Set<String> ids = index.get(indexKey(value));
+        if (ids == null) return List.of();
+        List<ObjectNode> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            ObjectNode record = entries.get(id);
+            if (record != null) result.add(record);
+        }
+        return result;
+    }
+
+    /** Scans the mirrored records with {@link Filter#test(JsonNode)}. */
+    public List<ObjectNode> find(Filter query) {
+        List<ObjectNode> result = new ArrayList<>();
+        for (ObjectNode record : entries.values()) {
+            if (query == null || query.test(record)) result.add(record);
+        }
+        return result;
+    }
+
+    /** Newest {@code updated} value seen in query results. */
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public long getEventCount() {
+        return eventCount.get();
+    }
+
+    public long getCatchUpCount() {
+        return catchUpCount.get();
+    }
+
+    public long getReconcileCount() {
+        return reconcileCount.get();
+    }
+
+    public long getSyncErrorCount() {
+        return syncErrors.get();
+    }
+
+    /**
+     * Fetches the records updated since the watermark (all records on the first call) and applies them.
+     */
+    public void catchUp() {
+        synchronized (syncLock) {
+            long started = System.nanoTime();
+            String since = watermark;
+            String expression = filter != null ? filter.toString() : null;
+            if (since != null) {
+                String condition = client.filter(UPDATED + " >= {:since}", Map.of("since", withOverlap(since)));
+                expression = expression == null ? condition : "(" + expression + ") && " + condition;
+            }
+            try (Stream<ObjectNode> stream = records.stream(expression, UPDATED, BATCH)) {
+                stream.forEach(record -> {
+                    apply(record, true);
+                    advanceWatermark(record);
+                });
+            }
+            // deletes from before this query started cannot show up in later results
+            tombstones.values().removeIf(deletedAt -> deletedAt - started < 0);
+            catchUpCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Lists the ids on the server and drops mirrored records that no longer exist (or no longer match
+     * the filter). Records changed while the listing runs are kept.
+     */
+    public void reconcile() {
+        synchronized (syncLock) {
+            Map<String, ObjectNode> snapshot = new HashMap<>(entries);
+            Set<String> live = new HashSet<>();
+            String expression = filter != null ? filter.toString() : null;
+            try (Stream<ObjectNode> stream = records.stream(expression, "id", BATCH, null, "id", null, null)) {
+                stream.forEach(record -> live.add(record.path("id").asText()));
+            }
+            for (Map.Entry<String, ObjectNode> entry : snapshot.entrySet()) {
+                if (!live.contains(entry.getKey())) removeIfSame(entry.getKey(), entry.getValue());
+            }
+            reconcileCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        if (catchUpTask != null) catchUpTask.cancel(false);
+        if (unsubscribe != null) {
+            try {
+                unsubscribe.run();
+            } catch (Exception ignored) {
+            }
+        }
+        if (connectUnsubscribe != null) connectUnsubscribe.run();
+        scheduler.shutdownNow();
+    }
+
+    void onRealtimeEvent(Map<String, Object> event) {
+        Object record = event.get("record");
+        if (!(record instanceof Map)) return;
+        eventCount.incrementAndGet();
+        ObjectNode node = JsonUtils.MAPPER.valueToTree(record);
+        String id = node.path("id").asText(null);
+        if (id == null) return;
+        if ("delete".equals(event.get("action"))) {
+            tombstones.put(id, System.nanoTime());
+            remove(id);
+        } else {
+            tombstones.remove(id);
+            apply(node, false);
+        }
+    }
+
+    private void resync() {
+        if (closed) return;
+        try {
+            reconcile();
+            catchUp();
+        } catch (Exception e) {
+            syncErrors.incrementAndGet();
+        }
+    }
+
+    private void safeCatchUp() {
+        if (closed) return;
+        try {
+            catchUp();
+        } catch (Exception e) {
+            syncErrors.incrementAndGet();
+        }
+    }
+
+    private void apply(ObjectNode record, boolean fromQuery) {
+        String id = record.path("id").asText(null);
+        if (id == null) return;
+        if (fromQuery && tombstones.containsKey(id)) return;
+        if (localFilter && !filter.test(record)) {
+            remove(id);
+            return;
+        }
+        entries.compute(id, (key, current) -> {
+            if (current != null && isNewer(current, record)) return current;
+            if (current != null) unindex(id, current);
+            index(id, record);
+            return record;
+        });
+    }
+
+    private void remove(String id) {
+        entries.computeIfPresent(id, (key, current) -> {
+            unindex(id, current);
+            return null;
+        });
+    }
+
+    private void removeIfSame(String id, ObjectNode expected) {
+        entries.computeIfPresent(id, (key, current) -> {
+            if (current != expected) return current;
+            unindex(id, current);
+            return null;
+        });
+    }
+
+    private void advanceWatermark(ObjectNode record) {
+        String updated = record.path(UPDATED).asText("");
+        if (!updated.isEmpty() && (watermark == null || updated.compareTo(watermark) > 0)) {
+            watermark = updated;
+        }
+    }
+
+    private static boolean isNewer(ObjectNode current, ObjectNode candidate) {
+        String currentUpdated = current.path(UPDATED).asText("");
+        String candidateUpdated = candidate.path(UPDATED).asText("");
+        return !currentUpdated.isEmpty() && !candidateUpdated.isEmpty() && currentUpdated.compareTo(candidateUpdated) > 0;
+    }
+
+    private static String withOverlap(String updated) {
+        try {
+            Instant instant = Instant.parse(updated.replace(' ', 'T'));
+            return WATERMARK_FORMAT.format(instant.minusMillis(WATERMARK_OVERLAP_MILLIS));
+        } catch (DateTimeParseException e) {
+            return updated;
+        }
+    }
+
+    private void index(String id, ObjectNode record) {
+        for (Map.Entry<String, ConcurrentHashMap<String, Set<String>>> index : indexes.entrySet()) {
+            for (String key : indexKeys(record.get(index.getKey()))) {
+                index.getValue().computeIfAbsent(key, __ -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+    }
+
+    private void unindex(String id, ObjectNode record) {
+        for (Map.Entry<String, ConcurrentHashMap<String, Set<String>>> index : indexes.entrySet()) {
+            for (String key : indexKeys(record.get(index.getKey()))) {
+                index.getValue().computeIfPresent(key, (__, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private static List<String> indexKeys(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) return List.of();
+        if (!value.isArray()) return List.of(indexKey(value));
+        List<String> keys = new ArrayList<>(value.size());
+        for (JsonNode item : value) {
+            if (!item.isNull()) keys.add(indexKey(item));
+        }
+        return keys;
+    }
+
+    private static String indexKey(Object value) {
+        if (value instanceof JsonNode) {
+            JsonNode node = (JsonNode) value;
+            if (node.isNumber()) return node.decimalValue().stripTrailingZeros().toPlainString();
+            return node.isValueNode() ? node.asText() : node.toString();
+        }
+        if (value instanceof Number) return new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+        return String.valueOf(value);
+    }
+}
@@ -4,6 +4,7 @@ import com.bosbase.sdk.BosBase;
 import com.bosbase.sdk.JsonUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -179,9 +180,7 @@ public class CollectionService extends BaseCrudService {
             fields.add((ObjectNode) newFieldNode);
         }
 
-        Map<String, Object> updated = JsonUtils.jsonNodeToMap(collection);
-        updated.put("fields", fields);
-        return update(collectionIdOrName, updated, null, null, headers);
+        return update(collectionIdOrName, Map.of("fields", fields), null, null, headers);
     }
 
     public ObjectNode updateField(String collectionIdOrName, String fieldName, Map<String, Object> updates, Map<String, String> headers) {
@@ -214,13 +213,12 @@ public class CollectionService extends BaseCrudService {
         Map<String, Object> merged = JsonUtils.jsonNodeToMap(current);
         merged.putAll(updates);
         JsonNode mergedNode = JsonUtils.toJsonNode(merged);
+        if (mergedNode.equals(current)) return collection;
         if (mergedNode.isObject()) {
             fields.set(idx, (ObjectNode) mergedNode);
         }
 
-        Map<String, Object> updated = JsonUtils.jsonNodeToMap(collection);
-        updated.put("fields", fields);
-        return update(collectionIdOrName, updated, null, null, headers);
+        return update(collectionIdOrName, Map.of("fields", fields), null, null, headers);
     }
 
     public ObjectNode removeField(String collectionIdOrName, String fieldName, Map<String, String> headers) {
@@ -247,10 +245,7 @@ public class CollectionService extends BaseCrudService {
                 idxDef.contains(", " + fieldName + ")")
         );
 
-        Map<String, Object> updated = JsonUtils.jsonNodeToMap(collection);
-        updated.put("fields", fields);
-        updated.put("indexes", indexes);
-        return update(collectionIdOrName, updated, null, null, headers);
+        return update(collectionIdOrName, Map.of("fields", fields, "indexes", indexes), null, null, headers);
     }
 
     public ObjectNode getField(String collectionIdOrName, String fieldName, Map<String, String> headers) {
@@ -292,9 +287,7 @@ public class CollectionService extends BaseCrudService {
         }
         indexes.add(definition);
 
-        Map<String, Object> updated = JsonUtils.jsonNodeToMap(collection);
-        updated.put("indexes", indexes);
-        return update(collectionIdOrName, updated, null, null, headers);
+        return update(collectionIdOrName, Map.of("indexes", indexes), null, null, headers);
     }
 
     public ObjectNode removeIndex(String collectionIdOrName, List<String> columns, Map<String, String> headers) {
@@ -315,9 +308,7 @@ public class CollectionService extends BaseCrudService {
             throw new IllegalArgumentException("Index not found");
         }
 
-        Map<String, Object> updated = JsonUtils.jsonNodeToMap(collection);
-        updated.put("indexes", indexes);
-        return update(collectionIdOrName, updated, null, null, headers);
+        return update(collectionIdOrName, Map.of("indexes", indexes), null, null, headers);
     }
 
     public List<String> getIndexes(String collectionIdOrName, Map<String, String> headers) {
@@ -345,13 +336,12 @@ public class CollectionService extends BaseCrudService {
         return setRule(collectionIdOrName, "deleteRule", rule, headers);
     }
 
+    /** PATCHes only the given rule keys; a {@code null} value locks the action to superusers. */
     public ObjectNode setRules(String collectionIdOrName, Map<String, String> rules, Map<String, String> headers) {
-        ObjectNode collection = getOne(collectionIdOrName, null, null, null, headers);
-        Map<String, Object> updated = JsonUtils.jsonNodeToMap(collection);
-        if (rules != null) {
-            rules.forEach(updated::put);
-        }
-        return update(collectionIdOrName, updated, null, null, headers);
+        if (rules == null || rules.isEmpty()) return getOne(collectionIdOrName, null, null, null, headers);
+        Map<String, Object> body = new HashMap<>();
+        rules.forEach((key, value) -> body.put(key, value != null ? value : NullNode.getInstance()));
+        return update(collectionIdOrName, body, null, null, headers);
     }
 
     public ObjectNode getSchema(String collectionIdOrName, Map<String, String> headers) {
@@ -435,10 +425,10 @@ public class CollectionService extends BaseCrudService {
     }
 
     private ObjectNode setRule(String collectionIdOrName, String ruleKey, String ruleValue, Map<String, String> headers) {
-        ObjectNode collection = getOne(collectionIdOrName, null, null, null, headers);
-        Map<String, Object> updated = JsonUtils.jsonNodeToMap(collection);
-        updated.put(ruleKey, ruleValue);
-        return update(collectionIdOrName, updated, null, null, headers);
+        Map<String, Object> body = new HashMap<>();
+        // A plain null would be dropped when serializing the body.
+        body.put(ruleKey, ruleValue != null ? ruleValue : NullNode.getInstance());
+        return update(collectionIdOrName, body, null, null, headers);
     }
 
     private ObjectNode emptyObject() {
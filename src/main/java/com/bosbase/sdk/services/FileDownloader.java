@@ -0,0 +1,265 @@
+package com.bosbase.sdk.services;
+
+import com.bosbase.sdk.BosBase;
+import com.bosbase.sdk.ClientResponseError;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.Response;
+import okio.BufferedSource;
+
+/**
+ * Streams downloads straight to disk.
+ *
+ * The body is written to {@code <target>.part} and moved into place once complete. Sequential
+ * downloads resume from the size of an existing part file with a {@code Range} request (both after a
+ * dropped connection and across calls). The ETag or Last-Modified value of the response that started
+ * the part file is kept in {@code <target>.part.validator} and sent as {@code If-Range}, so a file
+ * that changed in between is downloaded again from the start instead of being spliced. Segmented
+ * downloads fetch byte ranges in parallel and retry each range from where it stopped.
+ */
+final class FileDownloader {
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MIN_SEGMENT_SIZE = 8L * 1024 * 1024;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-\\d+/(\\d+|\\*)");
+
+    private FileDownloader() {
+    }
+
+    static long download(BosBase client, String path, Map<String, Object> query, Path target, int segments, Map<String, String> headers) {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        Path validatorFile = target.resolveSibling(target.getFileName() + ".part.validator");
+        try {
+            long size = -1;
+            if (segments > 1) {
+                Probe probe = probe(client, path, query, headers);
+                int count = (int) Math.min(segments, probe.total / MIN_SEGMENT_SIZE);
+                if (count > 1) {
+                    // a half-written segmented part file has holes, so it must never be resumed sequentially
+                    Files.deleteIfExists(validatorFile);
+                    size = downloadSegments(client, path, query, withIfRange(headers, probe.validator), part, probe.total, count);
+                }
+            }
+            if (size < 0) {
+                size = downloadSequential(client, path, query, headers, part, validatorFile);
+            }
+            moveIntoPlace(part, target);
+            Files.deleteIfExists(validatorFile);
+            return size;
+        } catch (IOException e) {
+            throw new ClientResponseError(client.buildUrl(path, query).toString(), e);
+        }
+    }
+
+    private static long downloadSequential(BosBase client, String path, Map<String, Object> query, Map<String, String> headers, Path part, Path validatorFile) throws IOException {
+        Exception last = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long offset = Files.exists(part) ? Files.size(part) : 0;
+            // without the validator of the response that wrote the part file it can't be resumed safely
+            String validator = offset > 0 && Files.exists(validatorFile) ? Files.readString(validatorFile) : null;
+            if (validator == null || validator.isEmpty()) offset = 0;
+            Map<String, String> requestHeaders = withRange(headers, offset > 0 ? "bytes=" + offset + "-" : null);
+            if (offset > 0) requestHeaders.put("If-Range", validator);
+            try (Response response = client.sendStreaming(path, "GET", requestHeaders, query)) {
+                if (response.code() != 206) {
+                    offset = 0;
+                } else if (rangeStart(response) != offset) {
+                    Files.deleteIfExists(part);
+                    Files.deleteIfExists(validatorFile);
+                    last = new IOException("Unexpected Content-Range " + response.header("Content-Range") + " for offset " + offset);
+                    continue;
+                }
+                if (offset == 0) {
+                    String fresh = validator(response);
+                    if (fresh != null) {
+                        Files.writeString(validatorFile, fresh);
+                    } else {
+                        Files.deleteIfExists(validatorFile);
+                    }
+                }
+                try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    channel.truncate(offset);
+                    Progress progress = new Progress(offset);
+                    copy(response.body().source(), channel, progress);
+                    return progress.position;
+                }
+            } catch (ClientResponseError e) {
+                if (e.getStatus() != null && e.getStatus() == 416 && offset > 0) {
+                    return offset; // the part file already holds the whole body
+                }
+                if (!isRetryable(e)) throw e;
+                last = e;
+            } catch (IOException e) {
+                last = e;
+            }
+        }
+        throw new ClientResponseError(client.buildUrl(path, query).toString(), last);
+    }
+
+    private static long downloadSegments(BosBase client, String path, Map<String, Object> query, Map<String, String> headers, Path part, long total, int count) throws IOException {
+        long segmentSize = (total + count - 1) / count;
+        ExecutorService pool = Executors.newFixedThreadPool(count, r -> {
+            Thread thread = new Thread(r, "bosbase-download");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long start = 0; start < total; start += segmentSize) {
+                long from = start;
+                long to = Math.min(start + segmentSize, total) - 1;
+                futures.add(pool.submit(() -> {
+                    downloadRange(client, path, query, headers, channel, from, to);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return total;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new ClientResponseError(client.buildUrl(path, query).toString(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientResponseError(client.buildUrl(path, query).toString(), null, Map.of(), true, e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void downloadRange(BosBase client, String path, Map<String, Object> query, Map<String, String> headers, FileChannel channel, long from, long to) {
+        Progress progress = new Progress(from);
+        Exception last = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && progress.position <= to; attempt++) {
+            Map<String, String> requestHeaders = withRange(headers, "bytes=" + progress.position + "-" + to);
+            try (Response response = client.sendStreaming(path, "GET", requestHeaders, query)) {
+                if (response.code() != 206) {
+                    // the whole file (or a changed one) would be written into this segment; retrying won't help
+                    throw new ClientResponseError(
+                        response.request().url().toString(),
+                        new IllegalStateException("Server answered a range request with " + response.code())
+                    );
+                }
+                if (rangeStart(response) != progress.position) {
+                    throw new ClientResponseError(
+                        response.request().url().toString(),
+                        new IllegalStateException("Unexpected Content-Range " + response.header("Content-Range") + " for offset " + progress.position)
+                    );
+                }
+                copy(response.body().source(), channel, progress);
+                return;
+            } catch (ClientResponseError e) {
+                if (!isRetryable(e)) throw e;
+                last = e;
+            } catch (IOException e) {
+                last = e;
+            }
+        }
+        if (progress.position <= to) {
+            throw new ClientResponseError(client.buildUrl(path, query).toString(), last);
+        }
+    }
+
+    /**
+     * Reads the full body length advertised by a one-byte range request (-1 when the server does not
+     * support ranges) and the validator the segment requests must match.
+     */
+    private static Probe probe(BosBase client, String path, Map<String, Object> query, Map<String, String> headers) {
+        try (Response response = client.sendStreaming(path, "GET", withRange(headers, "bytes=0-0"), query)) {
+            String contentRange = response.header("Content-Range");
+            if (response.code() != 206 || contentRange == null) return new Probe(-1, null);
+            Matcher matcher = CONTENT_RANGE.matcher(contentRange);
+            long total = matcher.matches() && !"*".equals(matcher.group(2)) ? Long.parseLong(matcher.group(2)) : -1;
+            return new Probe(total, validator(response));
+        }
+    }
+
+    /** The first byte position of a 206 response, or -1 when {@code Content-Range} is missing or malformed. */
+    private static long rangeStart(Response response) {
+        String contentRange = response.header("Content-Range");
+        if (contentRange == null) return -1;
+        Matcher matcher = CONTENT_RANGE.matcher(contentRange);
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    /** A strong ETag, else Last-Modified; weak ETags can't be used with {@code If-Range}. */
+    private static String validator(Response response) {
+        String etag = response.header("ETag");
+        if (etag != null && !etag.startsWith("W/")) return etag;
+        return response.header("Last-Modified");
+    }
+
+    private static void copy(BufferedSource source, FileChannel channel, Progress progress) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                progress.position += channel.write(buffer, progress.position);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static boolean isRetryable(ClientResponseError e) {
+        return !e.isAbort() && (e.getOriginalError() instanceof IOException || (e.getStatus() != null && e.getStatus() >= 500));
+    }
+
+    private static Map<String, String> withIfRange(Map<String, String> headers, String validator) {
+        if (validator == null) return headers;
+        Map<String, String> result = new HashMap<>();
+        if (headers != null) result.putAll(headers);
+        result.put("If-Range", validator);
+        return result;
+    }
+
+    private static Map<String, String> withRange(Map<String, String> headers, String range) {
+        Map<String, String> result = new HashMap<>();
+        if (headers != null) result.putAll(headers);
+        if (range != null) result.put("Range", range);
+        return result;
+    }
+
+    private static void moveIntoPlace(Path part, Path target) throws IOException {
+        try {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static class Probe {
+        final long total;
+        final String validator;
+
+        Probe(long total, String validator) {
+            this.total = total;
+            this.validator = validator;
+        }
+    }
+
+    private static class Progress {
+        long position;
+
+        Progress(long position) {
+            this.position = position;
+        }
+    }
+}
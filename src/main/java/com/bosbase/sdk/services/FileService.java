@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,14 +15,50 @@ public class FileService extends BaseService {
     }
 
     public String getURL(ObjectNode record, String filename, String thumb, String token, Boolean download, Map<String, Object> query) {
-        if (filename == null || filename.isBlank()) return "";
-        if (record == null) return "";
+        String path = filePath(record, filename);
+        if (path == null) return "";
+
+        Map<String, Object> params = new HashMap<>();
+        if (thumb != null) params.put("thumb", thumb);
+        if (token != null) params.put("token", token);
+        if (download != null && download) params.put("download", "1");
+        if (query != null) params.putAll(query);
+
+        return client.buildUrl(path, params).toString();
+    }
+
+    public long download(ObjectNode record, String filename, Path target) {
+        return download(record, filename, target, null, 1, null);
+    }
+
+    /**
+     * Streams a record file to {@code target}, resuming an interrupted transfer from
+     * {@code <target>.part}. With {@code segments > 1} large files are fetched as parallel byte ranges.
+     * Returns the number of bytes in the downloaded file.
+     */
+    public long download(ObjectNode record, String filename, Path target, String token, int segments, Map<String, String> headers) {
+        String path = filePath(record, filename);
+        if (path == null) throw new IllegalArgumentException("record id, collection and filename are required");
+
+        Map<String, Object> params = new HashMap<>();
+        if (token != null) params.put("token", token);
+        return FileDownloader.download(client, path, params, target, segments, headers);
+    }
+
+    public String getToken(Map<String, String> headers) {
+        JsonNode data = client.send("/api/files/token", "POST", headers, null, null, null, null, null, true);
+        return data != null && data.isObject() ? data.path("token").asText("") : "";
+    }
+
+    private String filePath(ObjectNode record, String filename) {
+        if (filename == null || filename.isBlank()) return null;
+        if (record == null) return null;
 
         String recordId = record.path("id").asText(null);
         String collection = record.has("collectionId")
             ? record.path("collectionId").asText(null)
             : record.path("collectionName").asText(null);
-        if (recordId == null || collection == null) return "";
+        if (recordId == null || collection == null) return null;
 
         String[] parts = new String[] {
             "api",
@@ -30,19 +67,7 @@ public class FileService extends BaseService {
             urlEncode(recordId),
             urlEncode(filename)
         };
-
-        Map<String, Object> params = new HashMap<>();
-        if (thumb != null) params.put("thumb", thumb);
-        if (token != null) params.put("token", token);
-        if (download != null && download) params.put("download", "1");
-        if (query != null) params.putAll(query);
-
-        return client.buildUrl(String.join("/", parts), params).toString();
-    }
-
-    public String getToken(Map<String, String> headers) {
-        JsonNode data = client.send("/api/files/token", "POST", headers, null, null, null, null, null, true);
-        return data != null && data.isObject() ? data.path("token").asText("") : "";
+        return String.join("/", parts);
     }
 
     private String urlEncode(String value) {
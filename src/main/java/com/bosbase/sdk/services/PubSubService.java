@@ -1,8 +1,10 @@
 package com.bosbase.sdk.services;
 
+import com.bosbase.sdk.Backoff;
 import com.bosbase.sdk.BosBase;
 import com.bosbase.sdk.ClientResponseError;
 import com.bosbase.sdk.JsonUtils;
+import com.bosbase.sdk.LoadBalancer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -91,11 +93,12 @@ public class PubSubService extends BaseService {
     private final ConcurrentHashMap<String, PendingAck> pendingAcks = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Set<Consumer<PubSubMessage<Object>>>> subscriptions = new ConcurrentHashMap<>();
 
-    private final long[] predefinedReconnectIntervals = new long[] {200L, 300L, 500L, 1000L, 1200L, 1500L, 2000L};
+    private volatile Backoff reconnectBackoff = new Backoff(200, 2_000, 1.5, 0.5);
     private final long ackTimeoutMs = 10_000L;
     private final long maxConnectTimeout = 15_000L;
 
     private WebSocket socket;
+    private volatile LoadBalancer.Node node;
     private ScheduledFuture<?> connectTimeout;
     private ScheduledFuture<?> reconnectTimeout;
     private int reconnectAttempts = 0;
@@ -108,6 +111,14 @@ public class PubSubService extends BaseService {
         super(client);
     }
 
+    /**
+     * Delay schedule between reconnect attempts; jitter keeps many clients from reconnecting in lockstep.
+     */
+    public void setReconnectBackoff(Backoff reconnectBackoff) {
+        if (reconnectBackoff == null) throw new IllegalArgumentException("reconnectBackoff must be set");
+        this.reconnectBackoff = reconnectBackoff;
+    }
+
     public boolean isConnected() {
         synchronized (lock) {
             return socket != null && isReady;
@@ -290,9 +301,11 @@ public class PubSubService extends BaseService {
             query.put("token", client.authStore.getToken());
         }
 
-        okhttp3.HttpUrl httpUrl = client.buildUrl("/api/pubsub", query);
+        node = client.loadBalancer.select();
+        okhttp3.HttpUrl httpUrl = client.buildNodeUrl(node.baseUrl, "/api/pubsub", query);
         String scheme = httpUrl.scheme().equalsIgnoreCase("https") ? "wss" : "ws";
-        return httpUrl.newBuilder().scheme(scheme).build().toString();
+        // HttpUrl only accepts http(s); Request.Builder.url(String) maps ws(s) back when connecting
+        return scheme + httpUrl.toString().substring(httpUrl.scheme().length());
     }
 
     private String nextRequestId() {
@@ -344,6 +357,10 @@ public class PubSubService extends BaseService {
 
                 @Override
                 public void onFailure(WebSocket webSocket, Throwable t, okhttp3.Response response) {
+                    LoadBalancer.Node target = node;
+                    if (target != null && (t instanceof java.net.ConnectException || t instanceof java.net.UnknownHostException)) {
+                        client.loadBalancer.reportConnectFailure(target);
+                    }
                     connectErrorHandler(t);
                 }
             });
@@ -359,7 +376,7 @@ public class PubSubService extends BaseService {
         );
     }
 
-    private void handleMessage(String payload) {
+    void handleMessage(String payload) {
         if (connectTimeout != null) connectTimeout.cancel(true);
 
         JsonNode data;
@@ -466,9 +483,7 @@ public class PubSubService extends BaseService {
             return;
         }
 
-        long delay = reconnectAttempts < predefinedReconnectIntervals.length
-            ? predefinedReconnectIntervals[reconnectAttempts]
-            : predefinedReconnectIntervals[predefinedReconnectIntervals.length - 1];
+        long delay = reconnectBackoff.delayMillis(reconnectAttempts + 1);
         if (reconnectAttempts < Integer.MAX_VALUE) {
             reconnectAttempts++;
             if (reconnectTimeout != null) reconnectTimeout.cancel(true);
@@ -517,9 +532,7 @@ public class PubSubService extends BaseService {
         }
 
         closeSocket(true);
-        long delay = reconnectAttempts < predefinedReconnectIntervals.length
-            ? predefinedReconnectIntervals[reconnectAttempts]
-            : predefinedReconnectIntervals[predefinedReconnectIntervals.length - 1];
+        long delay = reconnectBackoff.delayMillis(reconnectAttempts + 1);
         reconnectAttempts++;
         if (reconnectTimeout != null) reconnectTimeout.cancel(true);
         reconnectTimeout = scheduler.schedule(this::initConnect, delay, TimeUnit.MILLISECONDS);
@@ -1,7 +1,9 @@
 package com.bosbase.sdk.services;
 
+import com.bosbase.sdk.Backoff;
 import com.bosbase.sdk.BosBase;
 import com.bosbase.sdk.JsonUtils;
+import com.bosbase.sdk.LoadBalancer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,6 +15,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import okhttp3.Request;
@@ -21,14 +26,30 @@ import okhttp3.sse.EventSourceListener;
 import okhttp3.sse.EventSources;
 
 public class RealtimeService extends BaseService {
+    /** Reconnect delays of all clients; the thread exits when no reconnect is pending. */
+    private static final ScheduledThreadPoolExecutor RECONNECTS = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "bosbase-realtime");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        RECONNECTS.setKeepAliveTime(30, TimeUnit.SECONDS);
+        RECONNECTS.allowCoreThreadTimeOut(true);
+    }
+
     private final ObjectMapper mapper = JsonUtils.MAPPER;
     private final ConcurrentHashMap<String, List<Consumer<Map<String, Object>>>> subscriptions = new ConcurrentHashMap<>();
+    private volatile Backoff reconnectBackoff = new Backoff(200, 5_000, 2.0, 0.5);
     private EventSource eventSource;
+    /** Node the event stream is connected to; subscription updates must go to the same node. */
+    private volatile LoadBalancer.Node node;
     private int reconnectAttempt = 0;
     private boolean manualDisconnect = false;
     private String clientId = "";
 
     private Consumer<List<String>> onDisconnect;
+    private final List<Runnable> connectListeners = new CopyOnWriteArrayList<>();
 
     public RealtimeService(BosBase client) {
         super(client);
@@ -42,6 +63,25 @@ public class RealtimeService extends BaseService {
         this.onDisconnect = onDisconnect;
     }
 
+    /**
+     * Registers a listener called after every (re)connect, once the active subscriptions were submitted
+     * again. Events sent while disconnected are lost, so this is the point to re-sync state.
+     * Returns a function that removes the listener.
+     */
+    public Runnable addConnectListener(Runnable listener) {
+        if (listener == null) throw new IllegalArgumentException("listener must be set");
+        connectListeners.add(listener);
+        return () -> connectListeners.remove(listener);
+    }
+
+    /**
+     * Delay schedule between reconnect attempts; jitter keeps many clients from reconnecting in lockstep.
+     */
+    public void setReconnectBackoff(Backoff reconnectBackoff) {
+        if (reconnectBackoff == null) throw new IllegalArgumentException("reconnectBackoff must be set");
+        this.reconnectBackoff = reconnectBackoff;
+    }
+
     public Runnable subscribe(String topic, Consumer<Map<String, Object>> callback, Map<String, Object> query, Map<String, String> headers) {
         if (topic == null || topic.isBlank()) throw new IllegalArgumentException("topic must be set");
         String key = buildSubscriptionKey(topic, query, headers);
@@ -125,8 +165,10 @@ public class RealtimeService extends BaseService {
 
     private void connect() {
         if (manualDisconnect) return;
+        LoadBalancer.Node target = client.loadBalancer.select();
+        node = target;
         Request.Builder reqBuilder = new Request.Builder()
-            .url(client.buildUrl("/api/realtime").toString())
+            .url(client.buildNodeUrl(target.baseUrl, "/api/realtime", null).toString())
             .header("Accept", "text/event-stream")
             .header("Cache-Control", "no-store")
             .header("Accept-Language", client.lang)
@@ -151,6 +193,9 @@ public class RealtimeService extends BaseService {
 
             @Override
             public void onFailure(EventSource eventSource, Throwable t, okhttp3.Response response) {
+                if (t instanceof java.net.ConnectException || t instanceof java.net.UnknownHostException) {
+                    client.loadBalancer.reportConnectFailure(target);
+                }
                 handleDisconnect();
             }
         });
@@ -163,6 +208,12 @@ public class RealtimeService extends BaseService {
             this.clientId = cid != null ? cid.toString() : (id != null ? id : "");
             reconnectAttempt = 0;
             submitSubscriptions();
+            for (Runnable listener : connectListeners) {
+                try {
+                    listener.run();
+                } catch (Exception ignored) {
+                }
+            }
             return;
         }
 
@@ -192,18 +243,13 @@ public class RealtimeService extends BaseService {
     }
 
     private void scheduleReconnect() {
-        long[] delays = new long[] {200L, 500L, 1000L, 2000L, 5000L};
-        long delay = reconnectAttempt < delays.length ? delays[reconnectAttempt] : delays[delays.length - 1];
         reconnectAttempt++;
-        new Thread(() -> {
-            try {
-                Thread.sleep(delay);
-            } catch (InterruptedException ignored) {
-            }
+        long delay = reconnectBackoff.delayMillis(reconnectAttempt);
+        RECONNECTS.schedule(() -> {
             if (!subscriptions.isEmpty() && !manualDisconnect) {
                 connect();
             }
-        }).start();
+        }, delay, TimeUnit.MILLISECONDS);
     }
 
     private void submitSubscriptions() {
@@ -213,7 +259,9 @@ public class RealtimeService extends BaseService {
             "subscriptions", new ArrayList<>(subscriptions.keySet())
         );
         try {
-            client.send("/api/realtime", "POST", null, null, payload, null, null, null, true);
+            LoadBalancer.Node target = node;
+            Map<String, Object> query = target != null ? Map.of("$node", target.baseUrl) : null;
+            client.send("/api/realtime", "POST", null, query, payload, null, null, null, true);
         } catch (Exception ignored) {
         }
     }
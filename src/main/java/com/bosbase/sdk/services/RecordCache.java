@@ -0,0 +1,206 @@
+package com.bosbase.sdk.services;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded (LRU) and TTL-bounded record cache used by {@link RecordService#enableCache(int, long)}.
+ *
+ * Entries are evicted when the owning collection emits realtime create/update/delete events, so
+ * cached reads stay coherent without polling. Cached nodes are shared between callers and must be
+ * treated as read-only.
+ */
+public class RecordCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, CachedRecord> entries;
+    private final Map<String, Set<String>> keysByRecordId = new HashMap<>();
+    private final Set<String> lookupKeys = new HashSet<>();
+    private final Object lock = new Object();
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RecordCache(int maxEntries, long ttlMillis) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : 0;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRecord> eldest) {
+                if (size() <= RecordCache.this.maxEntries) return false;
+                unindex(eldest.getKey(), eldest.getValue());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    public ObjectNode get(String key) {
+        synchronized (lock) {
+            CachedRecord entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                unindex(key, entry);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.record;
+        }
+    }
+
+    /**
+     * Stores a record. {@code lookup} marks entries resolved through a filter (getFirstListItem),
+     * which are dropped on any change in the collection since the match itself may change.
+     */
+    public void put(String key, ObjectNode record, boolean lookup) {
+        put(key, record, lookup, -1);
+    }
+
+    /**
+     * Current invalidation version; pass it to {@link #put(String, ObjectNode, boolean, long)} so a
+     * record fetched before a concurrent invalidation is not cached.
+     */
+    public long version() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    public void put(String key, ObjectNode record, boolean lookup, long expectedVersion) {
+        if (record == null) return;
+        String recordId = record.path("id").asText(null);
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        synchronized (lock) {
+            if (expectedVersion >= 0 && expectedVersion != version) return;
+            CachedRecord previous = entries.put(key, new CachedRecord(record, recordId, lookup, expiresAt));
+            if (previous != null) unindex(key, previous);
+            if (recordId != null) keysByRecordId.computeIfAbsent(recordId, __ -> new HashSet<>()).add(key);
+            if (lookup) lookupKeys.add(key);
+        }
+    }
+
+    /**
+     * Drops every cached variant of the record plus all filter lookups.
+     */
+    public void invalidate(String recordId) {
+        synchronized (lock) {
+            version++;
+            if (recordId != null) {
+                Set<String> keys = keysByRecordId.remove(recordId);
+                if (keys != null) {
+                    for (String key : keys) {
+                        CachedRecord entry = entries.remove(key);
+                        if (entry != null && entry.lookup) lookupKeys.remove(key);
+                    }
+                }
+            }
+            invalidateLookups();
+        }
+    }
+
+    public void invalidateLookups() {
+        synchronized (lock) {
+            version++;
+            for (String key : lookupKeys) {
+                CachedRecord entry = entries.remove(key);
+                if (entry != null && entry.recordId != null) {
+                    Set<String> keys = keysByRecordId.get(entry.recordId);
+                    if (keys != null) {
+                        keys.remove(key);
+                        if (keys.isEmpty()) keysByRecordId.remove(entry.recordId);
+                    }
+                }
+            }
+            lookupKeys.clear();
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            version++;
+            entries.clear();
+            keysByRecordId.clear();
+            lookupKeys.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Applies a realtime {@code collection/*} event ({@code {action, record}}).
+     */
+    void onRealtimeEvent(Map<String, Object> event) {
+        Object record = event.get("record");
+        Object id = record instanceof Map ? ((Map<?, ?>) record).get("id") : null;
+        if (id != null) {
+            invalidate(id.toString());
+        } else {
+            clear();
+        }
+    }
+
+    static String key(String kind, String idOrFilter, String expand, String fields, Map<String, Object> query, Map<String, String> headers, String token) {
+        return kind + '\u0000' + idOrFilter + '\u0000' + Objects.toString(expand, "") + '\u0000' + Objects.toString(fields, "")
+            + '\u0000' + (query != null ? query : "") + '\u0000' + (headers != null ? headers : "") + '\u0000' + Objects.toString(token, "");
+    }
+
+    private void unindex(String key, CachedRecord entry) {
+        if (entry.recordId != null) {
+            Set<String> keys = keysByRecordId.get(entry.recordId);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) keysByRecordId.remove(entry.recordId);
+            }
+        }
+        if (entry.lookup) lookupKeys.remove(key);
+    }
+
+    private static class CachedRecord {
+        final ObjectNode record;
+        final String recordId;
+        final boolean lookup;
+        final long expiresAt;
+
+        CachedRecord(ObjectNode record, String recordId, boolean lookup, long expiresAt) {
+            this.record = record;
+            this.recordId = recordId;
+            this.lookup = lookup;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+}
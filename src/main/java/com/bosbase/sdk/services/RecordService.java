@@ -7,27 +7,40 @@ import com.bosbase.sdk.BaseAuthStore;
 import com.bosbase.sdk.BosBase;
 import com.bosbase.sdk.ClientResponseError;
 import com.bosbase.sdk.FileAttachment;
+import com.bosbase.sdk.Filter;
 import com.bosbase.sdk.JsonUtils;
+import com.bosbase.sdk.ResultList;
 import com.bosbase.sdk.services.RealtimeService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import okhttp3.HttpUrl;
 
 public class RecordService extends BaseCrudService {
     private final String collectionIdOrName;
+    private volatile RecordCache cache;
+    private Runnable cacheUnsubscribe;
+    private Runnable cacheConnectUnsubscribe;
 
     private BaseAuthStore authStore() {
         return client.authStore;
@@ -64,6 +77,100 @@ public class RecordService extends BaseCrudService {
         }
     }
 
+    /**
+     * Enables an opt-in read-through cache in front of {@link #getOne(String, String, String, Map, Map)}
+     * and {@link #getFirstListItem(String, String, String, Map, Map)}.
+     *
+     * The cache subscribes to {@code collection/*} realtime events and evicts affected entries on
+     * create/update/delete, so it requires the current auth to be allowed to receive those events.
+     * Events sent while the realtime connection was down are lost, so the cache is cleared on every
+     * reconnect.
+     */
+    public synchronized RecordCache enableCache(int maxEntries, long ttlMillis) {
+        disableCache();
+        RecordCache newCache = new RecordCache(maxEntries, ttlMillis);
+        cacheUnsubscribe = subscribe("*", newCache::onRealtimeEvent, null, null);
+        cacheConnectUnsubscribe = client.realtime.addConnectListener(newCache::clear);
+        cache = newCache;
+        return newCache;
+    }
+
+    public synchronized void disableCache() {
+        RecordCache current = cache;
+        cache = null;
+        if (cacheUnsubscribe != null) {
+            try {
+                cacheUnsubscribe.run();
+            } catch (Exception ignored) {
+            }
+            cacheUnsubscribe = null;
+        }
+        if (cacheConnectUnsubscribe != null) {
+            cacheConnectUnsubscribe.run();
+            cacheConnectUnsubscribe = null;
+        }
+        if (current != null) current.clear();
+    }
+
+    public RecordCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Creates and {@link CollectionMirror#start() starts} an in-memory mirror of this collection
+     * (or of the records matching {@code filter}).
+     */
+    public CollectionMirror mirror(Filter filter, long catchUpIntervalMillis, String... indexedFields) {
+        return new CollectionMirror(this, filter, catchUpIntervalMillis, indexedFields).start();
+    }
+
+    @Override
+    public ObjectNode getOne(String id, String expand, String fields, Map<String, Object> query, Map<String, String> headers) {
+        RecordCache current = cache;
+        if (current == null) {
+            return super.getOne(id, expand, fields, query, headers);
+        }
+        String key = RecordCache.key("one", id, expand, fields, query, headers, authStore().getToken());
+        ObjectNode cached = current.get(key);
+        if (cached != null) return cached;
+        long version = current.version();
+        ObjectNode record = super.getOne(id, expand, fields, query, headers);
+        current.put(key, record, false, version);
+        return record;
+    }
+
+    @Override
+    public ObjectNode getFirstListItem(String filter, String expand, String fields, Map<String, Object> query, Map<String, String> headers) {
+        RecordCache current = cache;
+        if (current == null) {
+            return super.getFirstListItem(filter, expand, fields, query, headers);
+        }
+        String key = RecordCache.key("first", filter, expand, fields, query, headers, authStore().getToken());
+        ObjectNode cached = current.get(key);
+        if (cached != null) return cached;
+        long version = current.version();
+        ObjectNode record = super.getFirstListItem(filter, expand, fields, query, headers);
+        current.put(key, record, true, version);
+        return record;
+    }
+
+    @Override
+    public ObjectNode create(Map<String, Object> body, Map<String, List<FileAttachment>> files, Map<String, Object> query, Map<String, String> headers) {
+        ObjectNode item = super.create(body, files, query, headers);
+        RecordCache current = cache;
+        if (current != null) current.invalidateLookups();
+        return item;
+    }
+
+    @Override
+    public CompletableFuture<ObjectNode> createAsync(Map<String, Object> body, Map<String, List<FileAttachment>> files, Map<String, Object> query, Map<String, String> headers) {
+        return super.createAsync(body, files, query, headers).thenApply(item -> {
+            RecordCache current = cache;
+            if (current != null) current.invalidateLookups();
+            return item;
+        });
+    }
+
     public int getCount(String filter, String expand, String fields, Map<String, Object> query, Map<String, String> headers) {
         Map<String, Object> params = new HashMap<>();
         if (filter != null) params.put("filter", filter);
@@ -75,6 +182,45 @@ public class RecordService extends BaseCrudService {
         return data != null && data.isObject() ? data.path("count").asInt(0) : 0;
     }
 
+    public CompletableFuture<Integer> getCountAsync(String filter, String expand, String fields, Map<String, Object> query, Map<String, String> headers) {
+        Map<String, Object> params = new HashMap<>();
+        if (filter != null) params.put("filter", filter);
+        if (expand != null) params.put("expand", expand);
+        if (fields != null) params.put("fields", fields);
+        if (query != null) params.putAll(query);
+
+        return client.sendAsync(getBaseCrudPath() + "/count", "GET", headers, params, null, null, null, null, true)
+            .thenApply(data -> data != null && data.isObject() ? data.path("count").asInt(0) : 0);
+    }
+
+    /**
+     * Lazily streams every record matching {@code filter} using keyset pagination.
+     *
+     * Pages are requested with {@code skipTotal=true} and a cursor filter built from the last record of
+     * the previous page (e.g. {@code created > X || (created = X && id > Y)}) instead of an increasing
+     * {@code page} offset. The next page is prefetched while the current one is consumed, so only about
+     * one page is held in memory. {@code id} is appended to the sort as tie-breaker; the sort fields must
+     * be non-null and, when {@code fields} is set, included in the returned fields.
+     */
+    public Stream<ObjectNode> stream(
+        String filter,
+        String sort,
+        int batch,
+        String expand,
+        String fields,
+        Map<String, Object> query,
+        Map<String, String> headers
+    ) {
+        if (batch <= 0) throw new IllegalArgumentException("batch must be positive");
+        KeysetIterator iterator = new KeysetIterator(filter, parseKeysetSort(sort), batch, expand, fields, withoutAutoCancel(query), headers);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
+    }
+
+    public Stream<ObjectNode> stream(String filter, String sort, int batch) {
+        return stream(filter, sort, batch, null, null, null, null);
+    }
+
     public ObjectNode listAuthMethods(String fields, Map<String, Object> query, Map<String, String> headers, String requestKey) {
         Map<String, Object> params = new HashMap<>();
         if (fields != null) params.put("fields", fields);
@@ -638,18 +784,44 @@ public class RecordService extends BaseCrudService {
     @Override
     public ObjectNode update(String id, Map<String, Object> body, Map<String, List<FileAttachment>> files, Map<String, Object> query, Map<String, String> headers) {
         ObjectNode item = super.update(id, body, files, query, headers);
+        invalidateCached(id);
         maybeUpdateAuthRecord(id, item);
         return item;
     }
 
+    @Override
+    public CompletableFuture<ObjectNode> updateAsync(String id, Map<String, Object> body, Map<String, List<FileAttachment>> files, Map<String, Object> query, Map<String, String> headers) {
+        return super.updateAsync(id, body, files, query, headers).thenApply(item -> {
+            invalidateCached(id);
+            maybeUpdateAuthRecord(id, item);
+            return item;
+        });
+    }
+
     @Override
     public void delete(String id, Map<String, Object> query, Map<String, String> headers) {
         super.delete(id, query, headers);
+        invalidateCached(id);
         if (isAuthRecord(id)) {
             authStore().clear();
         }
     }
 
+    @Override
+    public CompletableFuture<Void> deleteAsync(String id, Map<String, Object> query, Map<String, String> headers) {
+        return super.deleteAsync(id, query, headers).thenRun(() -> {
+            invalidateCached(id);
+            if (isAuthRecord(id)) {
+                authStore().clear();
+            }
+        });
+    }
+
+    private void invalidateCached(String recordId) {
+        RecordCache current = cache;
+        if (current != null) current.invalidate(recordId);
+    }
+
     private OAuth2ProviderInfo findOAuthProvider(ObjectNode authMethods, String providerName) {
         if (authMethods == null) return null;
         JsonNode oauth = authMethods.get("oauth2");
@@ -793,6 +965,115 @@ public class RecordService extends BaseCrudService {
         return JsonUtils.MAPPER.createObjectNode();
     }
 
+    private static List<String> parseKeysetSort(String sort) {
+        List<String> keys = new ArrayList<>();
+        if (sort != null) {
+            for (String part : sort.split(",")) {
+                String key = part.trim();
+                if (key.startsWith("+")) key = key.substring(1);
+                if (key.isEmpty()) continue;
+                keys.add(key);
+            }
+        }
+        if (!keys.contains("id") && !keys.contains("-id")) {
+            keys.add("id");
+        }
+        return keys;
+    }
+
+    private class KeysetIterator implements Iterator<ObjectNode> {
+        private final String filter;
+        private final List<String> sortKeys;
+        private final int batch;
+        private final String expand;
+        private final String fields;
+        private final Map<String, Object> query;
+        private final Map<String, String> headers;
+
+        private Iterator<ObjectNode> current = Collections.emptyIterator();
+        private CompletableFuture<ResultList<ObjectNode>> next;
+        /** The {@code sendAsync} future behind {@link #next}; only this one cancels the HTTP call. */
+        private CompletableFuture<JsonNode> nextCall;
+
+        KeysetIterator(
+            String filter,
+            List<String> sortKeys,
+            int batch,
+            String expand,
+            String fields,
+            Map<String, Object> query,
+            Map<String, String> headers
+        ) {
+            this.filter = filter;
+            this.sortKeys = sortKeys;
+            this.batch = batch;
+            this.expand = expand;
+            this.fields = fields;
+            this.query = query;
+            this.headers = headers;
+            this.next = fetchAfter(null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (next == null) return false;
+                ResultList<ObjectNode> page = await(next);
+                List<ObjectNode> items = page.items;
+                int pageSize = page.perPage > 0 ? page.perPage : batch;
+                next = items.isEmpty() || items.size() < pageSize ? null : fetchAfter(items.get(items.size() - 1));
+                current = items.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public ObjectNode next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        void close() {
+            CompletableFuture<JsonNode> pending = nextCall;
+            next = null;
+            nextCall = null;
+            current = Collections.emptyIterator();
+            if (pending != null) pending.cancel(true);
+        }
+
+        private CompletableFuture<ResultList<ObjectNode>> fetchAfter(ObjectNode last) {
+            String pageFilter = filter;
+            if (last != null) {
+                String cursor = cursorFilter(last);
+                pageFilter = filter == null || filter.isBlank() ? cursor : "(" + filter + ") && (" + cursor + ")";
+            }
+            Map<String, Object> params = listParams(1, batch, true, pageFilter, String.join(",", sortKeys), expand, fields, query);
+            nextCall = client.sendAsync(getBaseCrudPath(), "GET", headers, params, null, null, null, null, true);
+            return nextCall.thenApply(RecordService.this::asResultList);
+        }
+
+        // (k1 > v1) || (k1 = v1 && k2 > v2) || ... for a lexicographic (k1, k2, ..., id) cursor
+        private String cursorFilter(ObjectNode last) {
+            Map<String, Object> params = new HashMap<>();
+            List<String> alternatives = new ArrayList<>();
+            for (int i = 0; i < sortKeys.size(); i++) {
+                StringBuilder clause = new StringBuilder();
+                for (int j = 0; j <= i; j++) {
+                    String key = sortKeys.get(j);
+                    boolean desc = key.startsWith("-");
+                    String field = desc ? key.substring(1) : key;
+                    String param = "k" + j;
+                    params.put(param, JsonUtils.toNative(last.get(field)));
+                    if (j > 0) clause.append(" && ");
+                    String op = j < i ? "=" : (desc ? "<" : ">");
+                    clause.append(field).append(' ').append(op).append(" {:").append(param).append('}');
+                }
+                alternatives.add(i == 0 ? clause.toString() : "(" + clause + ")");
+            }
+            return client.filter(String.join(" || ", alternatives), params);
+        }
+    }
+
     private static class OAuth2ProviderInfo {
         final String name;
         final String authURL;
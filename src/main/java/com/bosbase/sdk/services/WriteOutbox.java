@@ -0,0 +1,720 @@
+package com.bosbase.sdk.services;
+
+import com.bosbase.sdk.Backoff;
+import com.bosbase.sdk.BosBase;
+import com.bosbase.sdk.ClientResponseError;
+import com.bosbase.sdk.FileAttachment;
+import com.bosbase.sdk.JsonUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static com.bosbase.sdk.PathUtils.encodePath;
+
+/**
+ * Durable, ordered outbox for record mutations that must survive server outages and restarts.
+ *
+ * Operations are appended to a write-ahead log in {@code directory} and the call returns right away;
+ * the returned future completes once the server applied the operation. A background thread sends the
+ * log in order through {@code /api/batch} (one batch in flight), retrying transport errors, 408, 429
+ * and 5xx with backoff. When the server reports a failed operation, the batch is split up to isolate
+ * it; only an operation rejected with 400 or 422 is dropped and reported to {@link #setOnRejected}.
+ * Any other error (401/403, a missing {@code /api/batch}, ...) pauses sending and keeps the log; see
+ * {@link #getPauseError()} and {@link #resume()}. Acknowledged segments are deleted.
+ *
+ * Creates and upserts without an {@code id} get one assigned before they are logged, so an operation
+ * that is sent again after a lost answer or a restart can't create a duplicate. When such a create
+ * fails because its id already exists (or such a delete finds no record) an earlier attempt applied
+ * it; it counts as sent and its future completes with a null node.
+ *
+ * Appends are fsynced together every {@code syncIntervalMillis} (or on each append when it is 0), so a
+ * crash can lose at most that window. Operations left in the log are sent again after a restart; their
+ * futures are gone by then, so only the rejection listener reports failures. Bodies must be JSON values
+ * ({@link FileAttachment} is not supported). Only one outbox may use a directory at a time.
+ */
+public class WriteOutbox implements AutoCloseable {
+    private static final JsonNodeFactory NODES = JsonUtils.MAPPER.getNodeFactory();
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String ACK_FILE = "acked";
+    /** length (int), seq (long), crc (int) */
+    private static final int HEADER_BYTES = 16;
+    private static final long SEGMENT_MAX_BYTES = 8L * 1024 * 1024;
+    private static final String ID_ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int ID_LENGTH = 15;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** A queued mutation as stored in the log. */
+    public static class Operation {
+        public final long seq;
+        public final String method;
+        public final String url;
+        /** JSON body, or {@code null}. */
+        public final String body;
+
+        Operation(long seq, String method, String url, String body) {
+            this.seq = seq;
+            this.method = method;
+            this.url = url;
+            this.body = body;
+        }
+    }
+
+    private static class Entry {
+        final Operation op;
+        /** {@code null} for operations recovered from the log. */
+        final CompletableFuture<JsonNode> result;
+        /** Sent before without a definite answer (or recovered from the log); only touched by the sender. */
+        boolean maybeApplied;
+
+        Entry(Operation op, CompletableFuture<JsonNode> result) {
+            this.op = op;
+            this.result = result;
+        }
+    }
+
+    private final BosBase client;
+    private final BatchService urls;
+    private final Path directory;
+    private final int maxBatchRequests;
+    private final long syncIntervalMillis;
+    private final ScheduledExecutorService scheduler = daemonScheduler("bosbase-outbox");
+    /** fsyncs get their own thread: the sender blocks in {@code send} for as long as the server is unreachable. */
+    private final ScheduledExecutorService syncScheduler;
+
+    private final Map<String, String> collectionUrls = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    /** first seq -> segment file, oldest first; the last one is being appended to */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel active;
+    private long activeBytes;
+    private long nextSeq;
+    private long ackedSeq;
+    private boolean dirty;
+    private boolean draining;
+    private boolean closed;
+    private ScheduledFuture<?> retryTask;
+    private ScheduledFuture<?> syncTask;
+    /** Operations sent one by one after a batch was rejected, until this seq. */
+    private long isolateUntil = -1;
+    private int retryAttempt;
+
+    private volatile Backoff retryBackoff = new Backoff(500, 30_000, 2.0, 0.5);
+    private volatile BiConsumer<Operation, ClientResponseError> onRejected;
+
+    /** Set while sending is paused on a non-retryable error. */
+    private ClientResponseError pauseError;
+    private final Runnable authUnsubscribe;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+
+    /**
+     * Opens (or recovers) the log in {@code directory} and starts sending queued operations.
+     *
+     * @param maxBatchRequests   operations per {@code /api/batch} request; keep at or below the server setting
+     * @param syncIntervalMillis fsync interval for appends, {@code 0} to fsync every append
+     */
+    public WriteOutbox(BosBase client, Path directory, int maxBatchRequests, long syncIntervalMillis) {
+        if (maxBatchRequests <= 0) throw new IllegalArgumentException("maxBatchRequests must be positive");
+        this.client = client;
+        this.urls = new BatchService(client);
+        this.directory = directory;
+        this.maxBatchRequests = maxBatchRequests;
+        this.syncIntervalMillis = Math.max(0, syncIntervalMillis);
+        try {
+            Files.createDirectories(directory);
+            recover();
+            openSegment(nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open outbox in " + directory, e);
+        }
+        if (this.syncIntervalMillis > 0) {
+            syncScheduler = daemonScheduler("bosbase-outbox-sync");
+            syncTask = syncScheduler.scheduleWithFixedDelay(this::syncQuietly, this.syncIntervalMillis, this.syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncScheduler = null;
+        }
+        // a new token may be what a 401/403 pause was waiting for
+        authUnsubscribe = client.authStore.onChange((token, model) -> {
+            if (token != null) resumeAfterAuthError();
+        });
+        scheduleDrain();
+    }
+
+    public CompletableFuture<JsonNode> create(String collectionIdOrName, Map<String, Object> body) {
+        return append("POST", collectionUrl(collectionIdOrName), withId(body));
+    }
+
+    public CompletableFuture<JsonNode> upsert(String collectionIdOrName, Map<String, Object> body) {
+        return append("PUT", collectionUrl(collectionIdOrName), withId(body));
+    }
+
+    public CompletableFuture<JsonNode> update(String collectionIdOrName, String recordId, Map<String, Object> body) {
+        return append("PATCH", collectionUrl(collectionIdOrName) + "/" + encodePath(recordId), body);
+    }
+
+    public CompletableFuture<JsonNode> delete(String collectionIdOrName, String recordId) {
+        return append("DELETE", collectionUrl(collectionIdOrName) + "/" + encodePath(recordId), null);
+    }
+
+    /**
+     * Delay schedule between attempts while the server is unreachable or overloaded.
+     */
+    public void setRetryBackoff(Backoff retryBackoff) {
+        if (retryBackoff == null) throw new IllegalArgumentException("retryBackoff must be set");
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * Called for each operation the server rejected with 400/422 or that {@link #rejectPaused()} dropped;
+     * it is removed from the log.
+     */
+    public void setOnRejected(BiConsumer<Operation, ClientResponseError> onRejected) {
+        this.onRejected = onRejected;
+    }
+
+    /**
+     * The error that paused sending, or {@code null}. Sending resumes on {@link #resume()},
+     * {@link #flush()} or, for 401/403, when the auth store receives a new token.
+     */
+    public ClientResponseError getPauseError() {
+        synchronized (lock) {
+            return pauseError;
+        }
+    }
+
+    /** Retries the operation that paused sending. */
+    public void resume() {
+        synchronized (lock) {
+            if (closed) return;
+            pauseError = null;
+            retryAttempt = 0;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Drops the operation that paused sending (reporting it to {@link #setOnRejected}) and resumes.
+     * Use it when the operation can never succeed, e.g. it updates a record that was deleted.
+     */
+    public void rejectPaused() {
+        List<Entry> dropped = new ArrayList<>();
+        ClientResponseError error;
+        synchronized (lock) {
+            if (closed || pauseError == null || pending.isEmpty()) return;
+            error = pauseError;
+            pauseError = null;
+            dropped.add(pending.peekFirst());
+        }
+        acknowledge(dropped, null, error);
+        scheduleDrain();
+    }
+
+    /** Operations appended but not yet acknowledged by the server. */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Forces pending appends to disk and sends queued operations now instead of waiting for a retry delay.
+     */
+    public void flush() {
+        synchronized (lock) {
+            if (closed) return;
+            sync();
+            retryAttempt = 0;
+            pauseError = null;
+            if (retryTask != null && retryTask.cancel(false)) {
+                retryTask = null;
+                draining = false;
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Syncs the log and stops sending. Operations not acknowledged yet stay in the log for the next
+     * outbox opened on the directory; their futures fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        List<Entry> abandoned;
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            authUnsubscribe.run();
+            if (retryTask != null) retryTask.cancel(false);
+            if (syncTask != null) syncTask.cancel(false);
+            try {
+                sync();
+                active.close();
+            } catch (RuntimeException | IOException ignored) {
+            }
+            abandoned = new ArrayList<>(pending);
+        }
+        if (syncScheduler != null) syncScheduler.shutdown();
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IllegalStateException error = new IllegalStateException("Outbox closed; the operation stays queued on disk");
+        for (Entry entry : abandoned) {
+            if (entry.result != null) entry.result.completeExceptionally(error);
+        }
+    }
+
+    private CompletableFuture<JsonNode> append(String method, String url, Map<String, Object> body) {
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        String json = null;
+        if (body != null) {
+            for (Object value : body.values()) {
+                if (value instanceof FileAttachment || (value instanceof List && ((List<?>) value).stream().anyMatch(v -> v instanceof FileAttachment))) {
+                    throw new IllegalArgumentException("File uploads cannot be queued in the outbox.");
+                }
+            }
+            try {
+                json = JsonUtils.MAPPER.writeValueAsString(body);
+            } catch (JsonProcessingException e) {
+                result.completeExceptionally(new ClientResponseError(e));
+                return result;
+            }
+        }
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("WriteOutbox is closed");
+            Operation op = new Operation(nextSeq, method, url, json);
+            try {
+                writeRecord(op.seq, encode(op));
+                if (syncIntervalMillis == 0) sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to the outbox", e);
+            }
+            nextSeq++;
+            pending.addLast(new Entry(op, result));
+        }
+        scheduleDrain();
+        return result;
+    }
+
+    private void scheduleDrain() {
+        synchronized (lock) {
+            if (closed || draining || pauseError != null || pending.isEmpty()) return;
+            draining = true;
+            scheduler.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            List<Entry> batch = new ArrayList<>();
+            synchronized (lock) {
+                retryTask = null;
+                if (closed || pending.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                int limit = pending.peekFirst().op.seq <= isolateUntil ? 1 : maxBatchRequests;
+                for (Entry entry : pending) {
+                    if (batch.size() >= limit) break;
+                    batch.add(entry);
+                }
+            }
+
+            JsonNode data;
+            try {
+                data = client.send("/api/batch", "POST", null, null, payload(batch), null, null, null, false);
+            } catch (ClientResponseError e) {
+                if (isRetryable(e)) {
+                    if (mayHaveBeenApplied(e)) {
+                        for (Entry entry : batch) entry.maybeApplied = true;
+                    }
+                    synchronized (lock) {
+                        retryCount.incrementAndGet();
+                        retryAttempt++;
+                        if (closed) {
+                            draining = false;
+                        } else {
+                            // stays "draining" until the retry runs, so new appends don't bypass the backoff
+                            retryTask = scheduler.schedule(this::drain, retryBackoff.delayMillis(retryAttempt), TimeUnit.MILLISECONDS);
+                        }
+                    }
+                    return;
+                }
+                ClientResponseError itemError = failedOperationError(e);
+                if (itemError != null && batch.size() > 1) {
+                    // the whole batch was rolled back; resend these one by one to find the culprit
+                    synchronized (lock) {
+                        isolateUntil = batch.get(batch.size() - 1).op.seq;
+                    }
+                    continue;
+                }
+                if (itemError != null && isAlreadyApplied(batch.get(0), itemError)) {
+                    acknowledge(batch, null, null);
+                    continue;
+                }
+                if (itemError != null && isRejection(itemError)) {
+                    acknowledge(batch, null, itemError);
+                    continue;
+                }
+                synchronized (lock) {
+                    pauseError = itemError != null ? itemError : e;
+                    draining = false;
+                }
+                return;
+            }
+            acknowledge(batch, data, null);
+        }
+    }
+
+    private void acknowledge(List<Entry> batch, JsonNode data, ClientResponseError batchError) {
+        synchronized (lock) {
+            retryAttempt = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                pending.pollFirst();
+            }
+            ackedSeq = batch.get(batch.size() - 1).op.seq;
+            try {
+                writeAck();
+                if (!closed) compact();
+            } catch (IOException ignored) {
+                // replaying an acknowledged operation after a crash is the worst case
+            }
+        }
+
+        String url = client.buildUrl("/api/batch").toString();
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i);
+            JsonNode item = data != null && data.isArray() ? data.get(i) : null;
+            int status = item != null ? item.path("status").asInt(200) : 200;
+            ClientResponseError error = batchError;
+            if (error == null && status >= 400) {
+                JsonNode body = item.has("body") ? item.get("body") : NullNode.getInstance();
+                error = new ClientResponseError(url, status, JsonUtils.jsonNodeToMap(body), false, null);
+            }
+            if (error != null) {
+                rejectedCount.incrementAndGet();
+                BiConsumer<Operation, ClientResponseError> listener = onRejected;
+                if (listener != null) {
+                    try {
+                        listener.accept(entry.op, error);
+                    } catch (Exception ignored) {
+                    }
+                }
+                if (entry.result != null) entry.result.completeExceptionally(error);
+            } else {
+                sentCount.incrementAndGet();
+                if (entry.result != null) {
+                    entry.result.complete(item != null && item.has("body") ? item.get("body") : NullNode.getInstance());
+                }
+            }
+        }
+    }
+
+    private void resumeAfterAuthError() {
+        synchronized (lock) {
+            if (pauseError == null) return;
+            int status = pauseError.getStatus() != null ? pauseError.getStatus() : 0;
+            if (status != 401 && status != 403) return;
+        }
+        resume();
+    }
+
+    private static boolean isRetryable(ClientResponseError error) {
+        Integer status = error.getStatus();
+        return status == null || status == 0 || status == 408 || status == 429 || status >= 500;
+    }
+
+    /** 429 refuses the request up front; other retryable errors may arrive after the server applied it. */
+    private static boolean mayHaveBeenApplied(ClientResponseError error) {
+        Integer status = error.getStatus();
+        return status == null || status != 429;
+    }
+
+    /**
+     * Whether a failed operation was applied by an earlier attempt whose answer was lost: a create whose
+     * (client-assigned) id already exists, or a delete of a record that is gone.
+     */
+    private static boolean isAlreadyApplied(Entry entry, ClientResponseError error) {
+        if (!entry.maybeApplied || error.getStatus() == null) return false;
+        int status = error.getStatus();
+        if ("DELETE".equals(entry.op.method)) return status == 404;
+        if (!"POST".equals(entry.op.method) || status != 400) return false;
+        JsonNode idError = JsonUtils.toJsonNode(error.getResponse()).path("data").path("id");
+        return "validation_not_unique".equals(idError.path("code").asText(null));
+    }
+
+    /** Validation failures of the operation itself; everything else may succeed later. */
+    private static boolean isRejection(ClientResponseError error) {
+        Integer status = error.getStatus();
+        return status != null && (status == 400 || status == 422);
+    }
+
+    /**
+     * The error of the operation that failed inside a rolled back batch, or {@code null} when the batch
+     * request as a whole was refused (auth, a missing endpoint, a malformed batch, ...). The server
+     * reports the former as 400 with {@code data.requests.<index>.response}.
+     */
+    private ClientResponseError failedOperationError(ClientResponseError error) {
+        if (error.getStatus() == null || error.getStatus() != 400) return null;
+        JsonNode requests = JsonUtils.toJsonNode(error.getResponse()).path("data").path("requests");
+        if (!requests.isObject()) return null;
+        Iterator<Map.Entry<String, JsonNode>> fields = requests.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode response = field.getValue().path("response");
+            if (!field.getKey().chars().allMatch(Character::isDigit) || !response.isObject()) continue;
+            int status = response.path("status").asInt(400);
+            return new ClientResponseError(error.getUrl(), status, JsonUtils.jsonNodeToMap(response), false, null);
+        }
+        return null;
+    }
+
+    private static ObjectNode payload(List<Entry> batch) {
+        ArrayNode requests = NODES.arrayNode(batch.size());
+        for (Entry entry : batch) {
+            ObjectNode request = requests.addObject();
+            request.put("method", entry.op.method);
+            request.put("url", entry.op.url);
+            request.set("body", entry.op.body != null ? NODES.rawValueNode(new RawValue(entry.op.body)) : NODES.objectNode());
+        }
+        ObjectNode payload = NODES.objectNode();
+        payload.set("requests", requests);
+        return payload;
+    }
+
+    // ---- log files (all called while holding the lock or from the constructor) ----
+
+    private void recover() throws IOException {
+        ackedSeq = readAck();
+        nextSeq = ackedSeq + 1;
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).forEach(p -> {
+                String name = p.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), p);
+                } catch (NumberFormatException ignored) {
+                }
+            });
+        }
+        for (Path segment : segments.values()) {
+            readSegment(segment);
+        }
+        compact();
+    }
+
+    private void readSegment(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long position = 0;
+            long size = channel.size();
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                channel.read(header, position);
+                header.flip();
+                int length = header.getInt();
+                long seq = header.getLong();
+                int crc = header.getInt();
+                if (length < 0 || position + HEADER_BYTES + length > size) break;
+                ByteBuffer body = ByteBuffer.allocate(length);
+                channel.read(body, position + HEADER_BYTES);
+                if (crc(seq, body.array()) != crc) break;
+                position += HEADER_BYTES + length;
+                if (seq < nextSeq) continue;
+                Operation op = decode(seq, body.array());
+                if (op != null) {
+                    Entry entry = new Entry(op, null);
+                    // the previous process may have sent it before stopping
+                    entry.maybeApplied = true;
+                    pending.addLast(entry);
+                }
+                nextSeq = seq + 1;
+            }
+            if (position < size) {
+                // torn or corrupt tail from a crash mid-append
+                channel.truncate(position);
+                channel.force(true);
+            }
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", firstSeq, SEGMENT_SUFFIX));
+        active = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeBytes = active.size();
+        segments.put(firstSeq, path);
+    }
+
+    private void writeRecord(long seq, byte[] payload) throws IOException {
+        if (activeBytes >= SEGMENT_MAX_BYTES) {
+            sync();
+            active.close();
+            openSegment(seq);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putLong(seq).putInt(crc(seq, payload)).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        activeBytes += HEADER_BYTES + payload.length;
+        dirty = true;
+    }
+
+    private void sync() {
+        if (!dirty) return;
+        try {
+            active.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync the outbox", e);
+        }
+    }
+
+    private void syncQuietly() {
+        synchronized (lock) {
+            if (closed) return;
+            try {
+                sync();
+            } catch (UncheckedIOException ignored) {
+            }
+        }
+    }
+
+    /** Deletes segments whose operations were all acknowledged; rolls the active one once it is fully acknowledged. */
+    private void compact() throws IOException {
+        if (active != null && pending.isEmpty() && activeBytes >= SEGMENT_MAX_BYTES / 8) {
+            sync();
+            active.close();
+            openSegment(nextSeq);
+        }
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> oldest = segments.firstEntry();
+            Long next = segments.higherKey(oldest.getKey());
+            if (next - 1 > ackedSeq) break;
+            Files.deleteIfExists(oldest.getValue());
+            segments.remove(oldest.getKey());
+        }
+    }
+
+    private long readAck() throws IOException {
+        Path path = directory.resolve(ACK_FILE);
+        if (!Files.exists(path)) return 0;
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void writeAck() throws IOException {
+        Path tmp = directory.resolve(ACK_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(ackedSeq).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(ACK_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encode(Operation op) {
+        ObjectNode node = NODES.objectNode();
+        node.put("method", op.method);
+        node.put("url", op.url);
+        if (op.body != null) node.set("body", NODES.rawValueNode(new RawValue(op.body)));
+        try {
+            return JsonUtils.MAPPER.writeValueAsBytes(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Operation decode(long seq, byte[] payload) {
+        try {
+            JsonNode node = JsonUtils.MAPPER.readTree(payload);
+            JsonNode body = node.get("body");
+            return new Operation(seq, node.path("method").asText(), node.path("url").asText(), body != null ? body.toString() : null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int crc(long seq, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(0, seq).array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /** Adds a random record id in the server's format unless the body already has one. */
+    private static Map<String, Object> withId(Map<String, Object> body) {
+        Object id = body != null ? body.get("id") : null;
+        if (id != null && !id.toString().isEmpty()) return body;
+        Map<String, Object> result = body != null ? new LinkedHashMap<>(body) : new LinkedHashMap<>();
+        StringBuilder generated = new StringBuilder(ID_LENGTH);
+        for (int i = 0; i < ID_LENGTH; i++) {
+            generated.append(ID_ALPHABET.charAt(RANDOM.nextInt(ID_ALPHABET.length())));
+        }
+        result.put("id", generated.toString());
+        return result;
+    }
+
+    private static ScheduledExecutorService daemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Batch-relative records URL; cached because building it through HttpUrl costs more than the append. */
+    private String collectionUrl(String collectionIdOrName) {
+        return collectionUrls.computeIfAbsent(collectionIdOrName,
+            name -> urls.buildRelative("/api/collections/" + encodePath(name) + "/records", null));
+    }
+}
@@ -0,0 +1,78 @@
+package com.bosbase.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+    private MockWebServer server;
+    private BosBase client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new BosBase(server.url("/").toString(), "en-US", new AuthStore(), new OkHttpClient());
+        client.autoCancellation(false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void rejectsOnceMaxWaitIsOver() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 100);
+        client.bulkhead("health", bulkhead);
+        server.enqueue(ok().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<JsonNode> slow = client.sendAsync("/api/health");
+        assertEquals(1, bulkhead.getActiveCount());
+
+        long start = System.nanoTime();
+        ClientResponseError rejected = assertThrows(ClientResponseError.class, () -> client.send("/api/health"));
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(rejected.getOriginalError() instanceof RejectedExecutionException);
+        assertTrue(waited >= 90 && waited < 450, "waited " + waited + " ms");
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        slow.get(5, TimeUnit.SECONDS);
+        assertEquals(0, bulkhead.getActiveCount());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void waitingRequestGetsThePermitWhenItIsReleased() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 5_000);
+        client.bulkhead("health", bulkhead);
+        server.enqueue(ok().setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        server.enqueue(ok());
+
+        CompletableFuture<JsonNode> first = client.sendAsync("/api/health");
+        CompletableFuture<JsonNode> second = client.sendAsync("/api/health");
+        assertEquals(1, bulkhead.getWaitingCount());
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, bulkhead.getAcceptedCount());
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    private static MockResponse ok() {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody("{\"code\":200}");
+    }
+}
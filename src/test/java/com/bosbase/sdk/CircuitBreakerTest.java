@@ -0,0 +1,122 @@
+package com.bosbase.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.RejectedExecutionException;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+    @Test
+    void opensAtFailureRateAndRejectsUntilOpenPeriodEnds() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 0, 4, 4, 100, 2);
+        complete(breaker, false);
+        complete(breaker, false);
+        complete(breaker, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        complete(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCount());
+
+        Thread.sleep(150);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        // both trial slots are taken until they report back
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenClosesOnceEveryTrialSucceeded() throws Exception {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(150);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(0, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onComplete(0, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    void halfOpenReopensOnFirstFailedTrial() throws Exception {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(150);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(0, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenCount());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void cancelledTrialGivesBackItsSlot() throws Exception {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(150);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void slowCallsCountAsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(1.0, 50, 2, 2, 1_000, 1);
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(60_000_000L, false);
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(70_000_000L, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getSlowCallCount());
+    }
+
+    @Test
+    void failsRequestsFastWhileOpenAndProbesAfterwards() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try (BosBase client = new BosBase(server.url("/").toString(), "en-US", new AuthStore(), new OkHttpClient())) {
+            CircuitBreaker breaker = new CircuitBreaker(0.5, 0, 2, 2, 200, 1);
+            client.circuitBreaker("health", breaker);
+            server.enqueue(new MockResponse().setResponseCode(500).setBody("{}"));
+            server.enqueue(new MockResponse().setResponseCode(500).setBody("{}"));
+            assertThrows(ClientResponseError.class, () -> client.send("/api/health"));
+            assertThrows(ClientResponseError.class, () -> client.send("/api/health"));
+
+            ClientResponseError rejected = assertThrows(ClientResponseError.class, () -> client.send("/api/health"));
+            assertTrue(rejected.getOriginalError() instanceof RejectedExecutionException);
+            assertEquals(2, server.getRequestCount());
+
+            Thread.sleep(250);
+            server.enqueue(new MockResponse().setBody("{\"code\":200}"));
+            client.send("/api/health");
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            assertEquals(3, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(1.0, 0, 1, 1, 100, 2);
+        complete(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void complete(CircuitBreaker breaker, boolean error) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(0, error);
+    }
+}
@@ -0,0 +1,148 @@
+package com.bosbase.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HedgingPolicyTest {
+    private MockWebServer server;
+    private OkHttpClient httpClient;
+    private BosBase client;
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger ended = new AtomicInteger();
+    /** Builds the response for the n-th request the server receives. */
+    private volatile IntFunction<MockResponse> responses;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        AtomicInteger received = new AtomicInteger();
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return responses.apply(received.getAndIncrement());
+            }
+        });
+        server.start();
+        // callEnd fires only once a response body is closed, so started == ended means nothing leaked
+        httpClient = new OkHttpClient.Builder().eventListener(new EventListener() {
+            @Override
+            public void callStart(Call call) {
+                started.incrementAndGet();
+            }
+
+            @Override
+            public void callEnd(Call call) {
+                ended.incrementAndGet();
+            }
+
+            @Override
+            public void callFailed(Call call, IOException ioe) {
+                ended.incrementAndGet();
+            }
+        }).build();
+        client = new BosBase(server.url("/").toString(), "en-US", new AuthStore(), httpClient);
+        client.autoCancellation(false);
+        client.hedgingPolicy = new HedgingPolicy(0.95, 50, 50, 1.0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void hedgeAnswersForASlowOriginal() {
+        responses = n -> n == 0 ? body("slow").setHeadersDelay(2, TimeUnit.SECONDS) : body("fast");
+
+        long start = System.nanoTime();
+        JsonNode data = client.send("/api/health");
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("fast", data.path("message").asText());
+        assertTrue(elapsed < 1_000, "answered after " + elapsed + " ms");
+        assertEquals(1, client.hedgingPolicy.getHedgeCount());
+        assertEquals(1, client.hedgingPolicy.getHedgeWinCount());
+        awaitAllCallsEnded();
+    }
+
+    @Test
+    void noHedgeWhenTheOriginalAnswersInTime() throws Exception {
+        responses = n -> body("fast");
+
+        client.sendAsync("/api/health").get(5, TimeUnit.SECONDS);
+        assertEquals(0, client.hedgingPolicy.getHedgeCount());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void writesAreNeverHedged() {
+        responses = n -> body("created").setHeadersDelay(150, TimeUnit.MILLISECONDS);
+
+        client.send("/api/collections/posts/records", "POST", null, null, Map.of("title", "a"), null, null, null, true);
+        assertEquals(0, client.hedgingPolicy.getHedgeCount());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void loserThatAlreadyAnsweredHasItsResponseClosed() {
+        // holds both attempts until each has its response in hand, so the loser can't be cancelled
+        // before it answers and must close the response it got
+        CountDownLatch bothAnswered = new CountDownLatch(2);
+        client.hedgingPolicy = new HedgingPolicy(0.95, 50, 50, 1.0) {
+            @Override
+            void recordLatency(long nanos) {
+                bothAnswered.countDown();
+                try {
+                    bothAnswered.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.recordLatency(nanos);
+            }
+        };
+        responses = n -> body(n == 0 ? "original" : "hedge").setHeadersDelay(n == 0 ? 100 : 0, TimeUnit.MILLISECONDS);
+
+        client.send("/api/health");
+        assertEquals(0, bothAnswered.getCount());
+        assertEquals(2, started.get());
+        awaitAllCallsEnded();
+    }
+
+    private void awaitAllCallsEnded() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ended.get() < started.get()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(started.get() + " calls started but only " + ended.get() + " ended");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static MockResponse body(String message) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody("{\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,116 @@
+package com.bosbase.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoadBalancerTest {
+    private MockWebServer live;
+    private String deadUrl;
+    private BosBase client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockWebServer dead = new MockWebServer();
+        dead.start();
+        deadUrl = dead.url("/").toString();
+        dead.shutdown();
+
+        live = new MockWebServer();
+        live.start();
+        BosBaseOptions options = new BosBaseOptions();
+        options.authStore = new AuthStore();
+        options.nodeEjectMillis = 60_000;
+        client = new BosBase(List.of(deadUrl, live.url("/").toString()), options);
+        client.autoCancellation(false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        live.shutdown();
+    }
+
+    @Test
+    void refusedConnectionFailsOverAndEjectsTheNode() {
+        live.enqueue(ok());
+        live.enqueue(ok());
+
+        client.send("/api/health");
+        LoadBalancer.Node dead = client.loadBalancer.getNodes().get(0);
+        assertTrue(dead.isEjected());
+        assertEquals(1, dead.getConnectFailureCount());
+
+        // the ejected node is skipped rather than tried again
+        client.send("/api/health");
+        assertEquals(1, dead.getRequestCount());
+        assertEquals(2, live.getRequestCount());
+    }
+
+    @Test
+    void asyncRequestsFailOverToo() throws Exception {
+        live.enqueue(ok());
+
+        JsonNode data = client.sendAsync("/api/health").get(5, TimeUnit.SECONDS);
+        assertEquals(200, data.path("code").asInt());
+        assertTrue(client.loadBalancer.getNodes().get(0).isEjected());
+    }
+
+    @Test
+    void failoverKeepsTheBulkheadPermitItAlreadyHolds() {
+        Bulkhead bulkhead = new Bulkhead(1, 0);
+        client.bulkhead("health", bulkhead);
+        live.enqueue(ok());
+
+        // a second acquire for the failover attempt would be rejected by the full bulkhead
+        client.send("/api/health");
+        assertEquals(1, bulkhead.getAcceptedCount());
+        assertEquals(0, bulkhead.getRejectedCount());
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    void bulkheadRejectionDoesNotCountAgainstAnyNode() throws Exception {
+        client.bulkhead("health", new Bulkhead(1, 0));
+        live.enqueue(ok().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<JsonNode> slow = client.sendAsync("/api/health");
+        ClientResponseError rejected = assertThrows(ClientResponseError.class, () -> client.send("/api/health"));
+        assertTrue(rejected.getOriginalError() instanceof RejectedExecutionException);
+        slow.get(5, TimeUnit.SECONDS);
+
+        LoadBalancer.Node liveNode = client.loadBalancer.getNodes().get(1);
+        assertFalse(liveNode.isEjected());
+        assertEquals(1, liveNode.getRequestCount());
+        assertEquals(0, liveNode.getOutstanding());
+        assertEquals(1, live.getRequestCount());
+    }
+
+    @Test
+    void pinnedRequestsDoNotFailOver() {
+        ClientResponseError error = assertThrows(
+            ClientResponseError.class,
+            () -> client.send("/api/health", "GET", null, Map.of("$node", deadUrl), null, null, null, null, true)
+        );
+        assertTrue(error.getOriginalError() instanceof IOException);
+        assertEquals(0, live.getRequestCount());
+    }
+
+    private static MockResponse ok() {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody("{\"code\":200}");
+    }
+}
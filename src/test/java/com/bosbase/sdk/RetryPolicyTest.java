@@ -0,0 +1,119 @@
+package com.bosbase.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RetryPolicyTest {
+    private MockWebServer server;
+    private BosBase client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new BosBase(server.url("/").toString(), "en-US", new AuthStore(), new OkHttpClient());
+        // 1 ms backoff so only Retry-After can make a retry wait
+        client.retryPolicy = new BackoffRetryPolicy(2, new Backoff(1, 1, 1.0, 0), 0, null, true);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void waitsForRetryAfterSeconds() {
+        server.enqueue(json(503, "{}").setHeader("Retry-After", "1"));
+        server.enqueue(json(200, "{\"ok\":true}"));
+
+        long start = System.nanoTime();
+        JsonNode data = client.send("/api/health");
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(data.path("ok").asBoolean());
+        assertEquals(2, server.getRequestCount());
+        assertTrue(elapsed >= 900, "retried after " + elapsed + " ms");
+    }
+
+    @Test
+    void asyncSendsRetryOnTheSameSchedule() throws Exception {
+        server.enqueue(json(429, "{}").setHeader("Retry-After", "1"));
+        server.enqueue(json(200, "{\"ok\":true}"));
+
+        long start = System.nanoTime();
+        JsonNode data = client.sendAsync("/api/health").get(5, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(data.path("ok").asBoolean());
+        assertTrue(elapsed >= 900, "retried after " + elapsed + " ms");
+    }
+
+    @Test
+    void stopsAfterMaxRetries() {
+        for (int i = 0; i < 4; i++) server.enqueue(json(503, "{}"));
+
+        ClientResponseError error = assertThrows(ClientResponseError.class, () -> client.send("/api/health"));
+        assertEquals(503, error.getStatus());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void retriesNonIdempotentRequestsOnlyOn429() {
+        server.enqueue(json(503, "{}"));
+        ClientResponseError error = assertThrows(
+            ClientResponseError.class,
+            () -> client.send("/api/collections/posts/records", "POST", null, null, Map.of("title", "a"), null, null, null, true)
+        );
+        assertEquals(503, error.getStatus());
+        assertEquals(1, server.getRequestCount());
+
+        server.enqueue(json(429, "{}"));
+        server.enqueue(json(200, "{\"id\":\"1\"}"));
+        JsonNode created = client.send("/api/collections/posts/records", "POST", null, null, Map.of("title", "a"), null, null, null, true);
+        assertEquals("1", created.path("id").asText());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void retryAfterExceedingTheTimeBudgetIsNotWaitedFor() {
+        client.retryPolicy = new BackoffRetryPolicy(2, new Backoff(1, 1, 1.0, 0), 500, null, true);
+        server.enqueue(json(503, "{}").setHeader("Retry-After", "5"));
+
+        long start = System.nanoTime();
+        assertThrows(ClientResponseError.class, () -> client.send("/api/health"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void parsesRetryAfterAsSecondsOrHttpDate() {
+        assertEquals(3_000L, BackoffRetryPolicy.parseRetryAfter("3"));
+        assertEquals(0L, BackoffRetryPolicy.parseRetryAfter("-1"));
+        assertNull(BackoffRetryPolicy.parseRetryAfter("soon"));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10));
+        long delay = BackoffRetryPolicy.parseRetryAfter(date);
+        assertTrue(delay > 8_000 && delay <= 10_000, "delay " + delay);
+    }
+
+    private static MockResponse json(int status, String body) {
+        return new MockResponse().setResponseCode(status).setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
@@ -0,0 +1,398 @@
+package com.bosbase.sdk.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bosbase.sdk.AuthStore;
+import com.bosbase.sdk.Backoff;
+import com.bosbase.sdk.BosBase;
+import com.bosbase.sdk.ClientResponseError;
+import com.bosbase.sdk.JsonUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteOutboxTest {
+    @TempDir
+    Path dir;
+
+    private MockWebServer server;
+    private BosBase client;
+    /** Status the server answers {@code /api/batch} with; 200 applies the batch. */
+    private volatile int batchStatus = 200;
+    /** Applies the next batch but answers it with 503, as if the answer got lost. */
+    private volatile boolean loseNextAnswer;
+    /** Titles of the operations the server applied, in order. */
+    private final List<String> applied = new CopyOnWriteArrayList<>();
+    /** Ids of the records the server holds. */
+    private final Set<String> ids = ConcurrentHashMap.newKeySet();
+    private final List<WriteOutbox> opened = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return handleBatch(request);
+            }
+        });
+        server.start();
+        client = new BosBase(server.url("/").toString(), "en-US", new AuthStore(), new OkHttpClient());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        opened.forEach(WriteOutbox::close);
+        server.shutdown();
+    }
+
+    @Test
+    void replaysUnacknowledgedOperationsAfterRestart() {
+        batchStatus = 503;
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("title", "a"));
+        outbox.create("posts", Map.of("title", "b"));
+        outbox.create("posts", Map.of("title", "c"));
+        outbox.close();
+        assertEquals(List.of(), applied);
+
+        batchStatus = 200;
+        WriteOutbox reopened = open();
+        await(() -> applied.size() == 3);
+        assertEquals(List.of("a", "b", "c"), applied);
+        await(() -> reopened.getPendingCount() == 0);
+    }
+
+    @Test
+    void doesNotReplayAcknowledgedOperations() throws Exception {
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("title", "a"));
+        outbox.create("posts", Map.of("title", "b")).get(5, TimeUnit.SECONDS);
+        outbox.close();
+        assertEquals("2", Files.readString(dir.resolve("acked")).trim());
+
+        WriteOutbox reopened = open();
+        reopened.create("posts", Map.of("title", "c")).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b", "c"), applied);
+    }
+
+    @Test
+    void truncatesTornTailRecord() throws Exception {
+        batchStatus = 503;
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("title", "a"));
+        outbox.create("posts", Map.of("title", "b"));
+        outbox.close();
+
+        Path segment = segment();
+        long intact = Files.size(segment);
+        // a crash in the middle of the next append: only part of the record header made it to disk
+        Files.write(segment, new byte[] {0, 0, 0, 42, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        WriteOutbox reopened = open();
+        assertEquals(intact, Files.size(segment));
+        assertEquals(2, reopened.getPendingCount());
+
+        batchStatus = 200;
+        reopened.flush();
+        await(() -> applied.size() == 2);
+        reopened.create("posts", Map.of("title", "c")).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b", "c"), applied);
+    }
+
+    @Test
+    void dropsTailRecordWithBadChecksum() throws Exception {
+        batchStatus = 503;
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("title", "a"));
+        outbox.create("posts", Map.of("title", "b"));
+        outbox.create("posts", Map.of("title", "c"));
+        outbox.close();
+
+        Path segment = segment();
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // overwrite a byte inside the last record's payload
+            channel.write(ByteBuffer.wrap(new byte[] {'#'}), size - 4);
+        }
+
+        WriteOutbox reopened = open();
+        assertTrue(Files.size(segment) < size);
+        assertEquals(2, reopened.getPendingCount());
+
+        batchStatus = 200;
+        reopened.flush();
+        await(() -> applied.size() == 2);
+        reopened.create("posts", Map.of("title", "d")).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b", "d"), applied);
+    }
+
+    @Test
+    void ignoresAckFileLeftOverFromInterruptedCheckpoint() throws Exception {
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("title", "a")).get(5, TimeUnit.SECONDS);
+        outbox.close();
+        // crash after writing the temporary checkpoint but before it replaced "acked"
+        Files.writeString(dir.resolve("acked.tmp"), "garb");
+
+        WriteOutbox reopened = open();
+        reopened.create("posts", Map.of("title", "b")).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b"), applied);
+        assertEquals("2", Files.readString(dir.resolve("acked")).trim());
+    }
+
+    @Test
+    void replaysTheLogWhenAckFileIsUnreadable() throws Exception {
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("title", "a")).get(5, TimeUnit.SECONDS);
+        outbox.close();
+        Files.writeString(dir.resolve("acked"), "not a number");
+
+        WriteOutbox reopened = open();
+        // without a checkpoint everything still in the log is sent again; the create's id keeps it
+        // from being applied twice
+        await(() -> reopened.getSentCount() == 1);
+        assertEquals(List.of("a"), applied);
+        assertEquals(0, reopened.getPendingCount());
+        assertEquals(0, reopened.getRejectedCount());
+    }
+
+    @Test
+    void createsGetAClientSideIdThatIsLogged() throws Exception {
+        batchStatus = 503;
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("title", "a"));
+        outbox.create("posts", Map.of("id", "given0000000000", "title", "b"));
+        outbox.close();
+        String log = new String(Files.readAllBytes(segment()), StandardCharsets.ISO_8859_1);
+
+        batchStatus = 200;
+        WriteOutbox reopened = open();
+        await(() -> reopened.getPendingCount() == 0);
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains("given0000000000"));
+        for (String id : ids) {
+            assertTrue(id.matches("[a-z0-9]{15}"), id);
+            assertTrue(log.contains("\"id\":\"" + id + "\""), id);
+        }
+    }
+
+    @Test
+    void resentOperationsThatWereAppliedBeforeCountAsSent() throws Exception {
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("id", "existing0000000", "title", "x")).get(5, TimeUnit.SECONDS);
+
+        batchStatus = 503;
+        CompletableFuture<JsonNode> first = outbox.create("posts", Map.of("title", "a"));
+        outbox.delete("posts", "existing0000000");
+        CompletableFuture<JsonNode> second = outbox.create("posts", Map.of("title", "b"));
+        await(() -> outbox.getRetryCount() == 1);
+
+        // the server applies all three but the answer never arrives
+        batchStatus = 200;
+        loseNextAnswer = true;
+        outbox.flush();
+        await(() -> outbox.getRetryCount() == 2);
+        assertEquals(List.of("x", "a", "b"), applied);
+
+        outbox.flush();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("x", "a", "b"), applied);
+        assertEquals(2, ids.size());
+        assertEquals(4, outbox.getSentCount());
+        assertEquals(0, outbox.getRejectedCount());
+        assertNull(outbox.getPauseError());
+    }
+
+    @Test
+    void duplicateIdOfAFirstAttemptIsStillRejected() {
+        WriteOutbox outbox = open();
+        outbox.create("posts", Map.of("id", "taken0000000000", "title", "a"));
+        CompletableFuture<JsonNode> duplicate = outbox.create("posts", Map.of("id", "taken0000000000", "title", "b"));
+        await(duplicate::isDone);
+        assertTrue(duplicate.isCompletedExceptionally());
+        assertEquals(1, outbox.getRejectedCount());
+        assertEquals(List.of("a"), applied);
+    }
+
+    @Test
+    void pausesOnUnauthorizedAndResumesWithNewToken() throws Exception {
+        batchStatus = 401;
+        WriteOutbox outbox = open();
+        CompletableFuture<JsonNode> result = outbox.create("posts", Map.of("title", "a"));
+        await(() -> outbox.getPauseError() != null);
+        assertEquals(401, outbox.getPauseError().getStatus());
+        assertEquals(1, outbox.getPendingCount());
+        assertEquals(0, outbox.getRejectedCount());
+
+        batchStatus = 200;
+        client.authStore.save("new-token", null);
+        result.get(5, TimeUnit.SECONDS);
+        assertNull(outbox.getPauseError());
+        assertEquals(List.of("a"), applied);
+    }
+
+    @Test
+    void pausesWhenBatchEndpointIsMissing() throws Exception {
+        batchStatus = 404;
+        WriteOutbox outbox = open();
+        CompletableFuture<JsonNode> result = outbox.create("posts", Map.of("title", "a"));
+        await(() -> outbox.getPauseError() != null);
+        assertEquals(404, outbox.getPauseError().getStatus());
+        outbox.close();
+
+        // the operation is still in the log for the next outbox
+        batchStatus = 200;
+        open();
+        await(() -> applied.size() == 1);
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    void dropsOnlyOperationsRejectedAsInvalid() throws Exception {
+        List<ClientResponseError> rejected = new CopyOnWriteArrayList<>();
+        WriteOutbox outbox = open();
+        outbox.setOnRejected((op, error) -> rejected.add(error));
+        outbox.create("posts", Map.of("title", "a"));
+        CompletableFuture<JsonNode> invalid = outbox.create("posts", Map.of("title", "invalid"));
+        outbox.create("posts", Map.of("title", "b")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("a", "b"), applied);
+        assertTrue(invalid.isCompletedExceptionally());
+        assertEquals(1, rejected.size());
+        assertEquals(400, rejected.get(0).getStatus());
+        assertNull(outbox.getPauseError());
+    }
+
+    @Test
+    void pausesOnOperationNotFoundUntilRejected() throws Exception {
+        List<ClientResponseError> rejected = new CopyOnWriteArrayList<>();
+        WriteOutbox outbox = open();
+        outbox.setOnRejected((op, error) -> rejected.add(error));
+        outbox.create("posts", Map.of("title", "missing"));
+        CompletableFuture<JsonNode> next = outbox.create("posts", Map.of("title", "a"));
+        await(() -> outbox.getPauseError() != null);
+        assertEquals(404, outbox.getPauseError().getStatus());
+        assertEquals(2, outbox.getPendingCount());
+
+        outbox.rejectPaused();
+        next.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a"), applied);
+        assertEquals(1, rejected.size());
+    }
+
+    private WriteOutbox open() {
+        WriteOutbox outbox = new WriteOutbox(client, dir, 10, 0);
+        outbox.setRetryBackoff(new Backoff(60_000, 60_000, 1.0, 0));
+        opened.add(outbox);
+        return outbox;
+    }
+
+    private Path segment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files.filter(p -> p.toString().endsWith(".wal")).sorted().collect(Collectors.toList());
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    /**
+     * Mimics the transactional batch endpoint: "invalid" titles fail with 400, "missing" ones and deletes
+     * of unknown records with 404, and creates of an existing id with a unique validation error, rolling
+     * back the whole batch and reporting the failed request under data.requests.
+     */
+    private MockResponse handleBatch(RecordedRequest request) {
+        if (batchStatus != 200) {
+            return json(batchStatus, "{\"status\":" + batchStatus + ",\"message\":\"Failed.\",\"data\":{}}");
+        }
+        JsonNode requests;
+        try {
+            requests = JsonUtils.MAPPER.readTree(request.getBody().readUtf8()).path("requests");
+        } catch (IOException e) {
+            return json(400, "{}");
+        }
+        List<String> titles = new ArrayList<>();
+        Set<String> after = ConcurrentHashMap.newKeySet();
+        after.addAll(ids);
+        ArrayNode results = JsonUtils.MAPPER.createArrayNode();
+        for (int i = 0; i < requests.size(); i++) {
+            JsonNode body = requests.get(i).path("body");
+            String title = body.path("title").asText();
+            int status = "invalid".equals(title) ? 400 : "missing".equals(title) ? 404 : 0;
+            boolean duplicate = false;
+            if (status == 0 && "DELETE".equals(requests.get(i).path("method").asText())) {
+                String url = requests.get(i).path("url").asText();
+                if (!after.remove(url.substring(url.lastIndexOf('/') + 1))) status = 404;
+            } else if (status == 0 && !after.add(body.path("id").asText())) {
+                status = 400;
+                duplicate = true;
+            }
+            if (status != 0) {
+                ObjectNode error = JsonUtils.MAPPER.createObjectNode();
+                error.put("status", 400).put("message", "Batch transaction failed.");
+                ObjectNode failed = error.putObject("data").putObject("requests").putObject(Integer.toString(i));
+                failed.put("code", "batch_request_failed");
+                ObjectNode data = failed.putObject("response").put("status", status).put("message", "Failed.").putObject("data");
+                if (duplicate) data.putObject("id").put("code", "validation_not_unique").put("message", "Value must be unique.");
+                return json(400, error.toString());
+            }
+            if (!body.path("title").isMissingNode()) titles.add(title);
+            results.addObject().put("status", 200).putObject("body").put("title", title);
+        }
+        ids.clear();
+        ids.addAll(after);
+        applied.addAll(titles);
+        if (loseNextAnswer) {
+            loseNextAnswer = false;
+            return json(503, "{\"status\":503,\"message\":\"Failed.\",\"data\":{}}");
+        }
+        return json(200, results.toString());
+    }
+
+    private static MockResponse json(int status, String body) {
+        return new MockResponse().setResponseCode(status).setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("condition not met within 5s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}